@@ -0,0 +1,39 @@
+#!/usr/bin/env bash
+# Compares /r/{shortCode} throughput and tail latency with Tomcat on platform threads versus
+# virtual threads. Needs JDK 21+, a running MongoDB and an existing short code:
+#
+#   bench/redirect-load/run.sh <short-code> [concurrency levels...]
+#
+# To see how the app behaves when a downstream is slow, point app.geo at an unreachable host or
+# add latency to MongoDB (e.g. with toxiproxy) before running.
+set -euo pipefail
+
+SHORT_CODE=${1:?usage: run.sh <short-code> [concurrency...]}
+shift
+LEVELS=${*:-"50 200 800"}
+PORT=${PORT:-8080}
+SECONDS_PER_RUN=${SECONDS_PER_RUN:-30}
+HERE=$(cd "$(dirname "$0")" && pwd)
+ROOT=$(cd "$HERE/../.." && pwd)
+
+(cd "$ROOT" && ./mvnw -q -B -Pjava21 -DskipTests package)
+JAR=$(ls "$ROOT"/target/urlshortener-*.jar | grep -v original | head -n 1)
+
+for mode in false true; do
+  echo "=== virtual threads: $mode ==="
+  VIRTUAL_THREADS=$mode java -Djdk.tracePinnedThreads=short -jar "$JAR" --server.port="$PORT" \
+      > "$HERE/app-virtual-$mode.log" 2>&1 &
+  APP=$!
+  trap 'kill $APP 2>/dev/null || true' EXIT
+  until curl -s -o /dev/null -w '%{http_code}' "http://localhost:$PORT/r/$SHORT_CODE" | grep -q 302; do
+    sleep 1
+  done
+
+  for c in $LEVELS; do
+    java "$HERE/RedirectLoad.java" "http://localhost:$PORT" "$SHORT_CODE" "$c" "$SECONDS_PER_RUN"
+  done
+
+  kill $APP
+  wait $APP 2>/dev/null || true
+  echo "frames holding a monitor while pinned: $(grep -c '<== monitors' "$HERE/app-virtual-$mode.log" || true)"
+done
@@ -0,0 +1,36 @@
+package com.urlshortener;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Loads the checked-in benchmark inputs under {@code src/jmh/resources/corpus}.
+ */
+public final class Corpus {
+
+    private Corpus() {
+    }
+
+    /**
+     * Returns the lines of {@code corpus/<name>}, skipping blank lines and {@code #} comments.
+     */
+    public static String[] lines(String name) {
+        InputStream in = Corpus.class.getClassLoader().getResourceAsStream("corpus/" + name);
+        if (in == null) {
+            throw new IllegalArgumentException("No corpus named " + name);
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            List<String> lines = reader.lines()
+                    .filter(line -> !line.isBlank() && !line.startsWith("#"))
+                    .toList();
+            return lines.toArray(String[]::new);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
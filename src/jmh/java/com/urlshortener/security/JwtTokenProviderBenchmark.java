@@ -0,0 +1,73 @@
+package com.urlshortener.security;
+
+import com.urlshortener.config.JwtConfig;
+import com.urlshortener.entity.User;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token work done for every authenticated call that misses {@link JwtPrincipalCache}.
+ * {@link #authenticateRequest} mirrors {@link JwtAuthenticationFilter}: verify the token once
+ * and read the principal from its claims.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class JwtTokenProviderBenchmark {
+
+    private static final int USERS = 64;
+
+    private JwtTokenProvider jwtTokenProvider;
+    private User[] users;
+    private String[] tokens;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        JwtConfig jwtConfig = new JwtConfig();
+        jwtConfig.setSecret("your-256-bit-secret-key-change-this-in-production-must-be-at-least-32-characters");
+        jwtConfig.setExpiration(86_400_000L);
+        jwtTokenProvider = new JwtTokenProvider(jwtConfig);
+
+        users = new User[USERS];
+        tokens = new String[USERS];
+        for (int i = 0; i < USERS; i++) {
+            users[i] = User.builder().username("user" + i + "@example.com").role("ROLE_USER").enabled(true).build();
+            tokens[i] = jwtTokenProvider.generateToken(users[i]);
+        }
+    }
+
+    @Benchmark
+    public boolean authenticateRequest() {
+        int i = advance();
+        Claims claims = jwtTokenProvider.parseToken(tokens[i]);
+        return claims.getSubject().equals(users[i].getUsername())
+                && Boolean.TRUE.equals(claims.get(JwtTokenProvider.ENABLED_CLAIM, Boolean.class))
+                && claims.get(JwtTokenProvider.ROLE_CLAIM, String.class) != null;
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtTokenProvider.generateToken(users[advance()]);
+    }
+
+    private int advance() {
+        int i = next;
+        next = (next + 1) % USERS;
+        return i;
+    }
+}
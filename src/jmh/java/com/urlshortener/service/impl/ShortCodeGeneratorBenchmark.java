@@ -0,0 +1,61 @@
+package com.urlshortener.service.impl;
+
+import com.urlshortener.util.ShortCodeCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Short code generation with one thread and with eight threads sharing the generator, which is
+ * how request threads use it. The random generator shares one {@code SecureRandom}; the codec
+ * benchmarks measure the per-ID cost of the block generator once a block has been leased.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ShortCodeGeneratorBenchmark {
+
+    private final ShortCodeGeneratorServiceImpl randomGenerator = new ShortCodeGeneratorServiceImpl();
+    private final ShortCodeCodec codec = new ShortCodeCodec(7, true, 25214903917L);
+
+    @State(Scope.Thread)
+    public static class Ids {
+        private long next = 1_000_000L;
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String random_singleThread() {
+        return randomGenerator.generateShortCode();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String random_contended() {
+        return randomGenerator.generateShortCode();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String scrambledCodec_singleThread(Ids ids) {
+        return codec.encode(ids.next++);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String scrambledCodec_contended(Ids ids) {
+        return codec.encode(ids.next++);
+    }
+}
@@ -0,0 +1,100 @@
+package com.urlshortener.service.impl;
+
+import com.urlshortener.Corpus;
+import com.urlshortener.config.ClickCounterConfig;
+import com.urlshortener.dto.response.UrlResponse;
+import com.urlshortener.entity.ShortUrl;
+import com.urlshortener.util.ShortCodeCodec;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request helpers of {@link UrlServiceImpl}: referrer classification, run on every redirect,
+ * and response mapping, run for every link returned by the API. Inputs cycle through the
+ * referrer corpus and a set of links of which half have unflushed clicks.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class UrlServiceBenchmark {
+
+    private static final int LINKS = 1024;
+
+    private UrlServiceImpl urlService;
+    private HttpServletRequest[] requests;
+    private ShortUrl[] links;
+    private int nextRequest;
+    private int nextLink;
+
+    @Setup
+    public void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ClickCounterServiceImpl clickCounterService =
+                new ClickCounterServiceImpl(null, new ClickCounterConfig(), meterRegistry);
+        urlService = new UrlServiceImpl(null, null, null, clickCounterService, null, null, null, meterRegistry);
+        ReflectionTestUtils.setField(urlService, "baseUrl", "https://sho.rt");
+
+        String[] referrers = Corpus.lines("referrers.txt");
+        requests = new HttpServletRequest[referrers.length];
+        for (int i = 0; i < referrers.length; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/r/abc1234");
+            if (!"<none>".equals(referrers[i])) {
+                request.addHeader("Referer", referrers[i]);
+            }
+            requests[i] = request;
+        }
+
+        ShortCodeCodec codec = new ShortCodeCodec(7, true, 25214903917L);
+        LocalDateTime createdAt = LocalDateTime.of(2024, 5, 1, 12, 0);
+        links = new ShortUrl[LINKS];
+        for (int i = 0; i < LINKS; i++) {
+            String shortCode = codec.encode(i);
+            links[i] = ShortUrl.builder()
+                    .id(Integer.toHexString(0x6630a000 + i) + "0000000000000000")
+                    .shortCode(shortCode)
+                    .originalUrl("https://example.com/campaigns/2024/spring/landing-page-" + i + "?utm_source=newsletter")
+                    .userId("6630a0000000000000000001")
+                    .totalClicks((long) i * 37)
+                    .expiresAt(i % 4 == 0 ? createdAt.plusDays(30) : null)
+                    .createdAt(createdAt)
+                    .updatedAt(createdAt)
+                    .active(true)
+                    .build();
+            if (i % 2 == 0) {
+                clickCounterService.increment(shortCode);
+            }
+        }
+    }
+
+    @Benchmark
+    public String getReferrer() {
+        HttpServletRequest request = requests[nextRequest];
+        nextRequest = (nextRequest + 1) % requests.length;
+        return urlService.getReferrer(request);
+    }
+
+    @Benchmark
+    public UrlResponse mapToResponse() {
+        ShortUrl link = links[nextLink];
+        nextLink = (nextLink + 1) % LINKS;
+        return urlService.mapToResponse(link);
+    }
+}
@@ -0,0 +1,76 @@
+package com.urlshortener.service.impl;
+
+import com.urlshortener.Corpus;
+import nl.basjes.parse.useragent.UserAgentAnalyzer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link UserAgentServiceImpl#parseUserAgent} over the user-agent corpus, with every string
+ * already in the analyzer's cache and with the cache emptied before each call. A cold parse
+ * is slow enough that the per-invocation setup does not skew it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+@State(Scope.Benchmark)
+public class UserAgentBenchmark {
+
+    private UserAgentServiceImpl userAgentService;
+    private UserAgentAnalyzer analyzer;
+    private String[] userAgents;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        private String next(String[] values) {
+            String value = values[next];
+            next = (next + 1) % values.length;
+            return value;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class EmptyCache {
+        @Setup(Level.Invocation)
+        public void clear(UserAgentBenchmark benchmark) {
+            benchmark.analyzer.clearCache();
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        userAgentService = new UserAgentServiceImpl();
+        analyzer = (UserAgentAnalyzer) ReflectionTestUtils.getField(userAgentService, "userAgentAnalyzer");
+        userAgents = Corpus.lines("user-agents.txt");
+        for (String userAgent : userAgents) {
+            userAgentService.parseUserAgent(userAgent);
+        }
+    }
+
+    @Benchmark
+    public Map<String, String> warmCache(Cursor cursor) {
+        return userAgentService.parseUserAgent(cursor.next(userAgents));
+    }
+
+    @Benchmark
+    public Map<String, String> coldCache(Cursor cursor, EmptyCache emptyCache) {
+        return userAgentService.parseUserAgent(cursor.next(userAgents));
+    }
+}
@@ -0,0 +1,28 @@
+package com.urlshortener.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.analytics-cache")
+public class AnalyticsCacheConfig {
+    private boolean enabled = true;
+    /** Links whose analytics are cached at once; least recently used links are evicted first. */
+    private long maxLinks = 10_000;
+    /** Distinct windows cached per link; least recently used windows are evicted first. */
+    private int maxQueriesPerLink = 8;
+    /**
+     * Upper bound on how long an unchanged result is served, so clicks ingested on other nodes,
+     * which only move the link's total, still show up in the breakdowns.
+     */
+    private Duration maxAge = Duration.ofSeconds(30);
+    /**
+     * How long a result may be served after new clicks arrived. Zero recomputes on every change;
+     * a few seconds keeps very hot links from being recomputed on every poll.
+     */
+    private Duration maxStaleness = Duration.ofSeconds(2);
+}
@@ -0,0 +1,23 @@
+package com.urlshortener.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.analytics")
+public class AnalyticsConfig {
+    /**
+     * {@code rollup} answers from the per-day rollups kept up to date at ingest time;
+     * {@code aggregation} groups {@code click_events} inside MongoDB with one pipeline;
+     * {@code raw} recomputes every breakdown in the application from {@code click_events}.
+     */
+    private String engine = "rollup";
+
+    /**
+     * Most time-series buckets one request may span. An open {@code from} counts from the
+     * link's creation, so minute buckets over a long-lived link need an explicit window.
+     */
+    private long maxBuckets = 10_000;
+}
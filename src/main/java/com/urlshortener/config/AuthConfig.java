@@ -0,0 +1,32 @@
+package com.urlshortener.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.auth")
+public class AuthConfig {
+    /** Threads running logins and registrations; half the cores leaves the rest to redirects. */
+    private int hashThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    /** Logins and registrations waiting for a thread; beyond this they get 429 at once. */
+    private int maxQueued = 32;
+    /** Login and registration attempts allowed per client IP per {@code ip-window}. */
+    private int ipAttempts = 20;
+    private Duration ipWindow = Duration.ofMinutes(1);
+    /** Failed logins allowed per username per {@code username-window}. */
+    private int usernameFailures = 10;
+    private Duration usernameWindow = Duration.ofMinutes(5);
+    /** Clients and usernames tracked at once; the least recent are forgotten beyond this. */
+    private long maxTracked = 100_000;
+    /**
+     * Registered users granted {@code ROLE_ADMIN}, for the actuator endpoints, once the
+     * application is ready. Register the account before listing it.
+     */
+    private List<String> adminUsernames = new ArrayList<>();
+}
@@ -0,0 +1,17 @@
+package com.urlshortener.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.click-counter")
+public class ClickCounterConfig {
+    /** How often buffered click counts are written to short_urls. */
+    private Duration flushInterval = Duration.ofSeconds(1);
+    /** Number of consecutive idle flushes after which a short code's counter is released. */
+    private int idleFlushesBeforeEviction = 2;
+}
@@ -0,0 +1,15 @@
+package com.urlshortener.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.click-export")
+public class ClickExportConfig {
+    /** Exports streamed at once per node; further requests get 429 until one finishes. */
+    private int maxConcurrent = 4;
+    /** Characters buffered before a write reaches the response, per export. */
+    private int bufferSize = 64 * 1024;
+}
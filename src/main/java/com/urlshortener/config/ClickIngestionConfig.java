@@ -0,0 +1,34 @@
+package com.urlshortener.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.click-ingestion")
+public class ClickIngestionConfig {
+    /** Maximum number of raw clicks buffered between the redirect path and the writers. */
+    private int queueCapacity = 100_000;
+    /** Maximum number of click events written in one bulk insert. */
+    private int batchSize = 500;
+    /** Longest time a partially filled batch waits before it is written. */
+    private Duration flushInterval = Duration.ofSeconds(1);
+    /** Number of background threads enriching and writing clicks. */
+    private int workers = 2;
+    /** What to do with a click when the queue is full. */
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_NEWEST;
+    /** How long shutdown waits for the queue to drain. */
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+
+    public enum OverflowPolicy {
+        /** Discard the incoming click. */
+        DROP_NEWEST,
+        /** Discard the oldest buffered click to make room. */
+        DROP_OLDEST,
+        /** Enrich and write the click on the redirecting thread. */
+        CALLER_RUNS
+    }
+}
@@ -0,0 +1,21 @@
+package com.urlshortener.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.click-storage")
+public class ClickStorageConfig {
+    /**
+     * {@code events} stores one {@code click_events} document per click; {@code buckets} stores
+     * the clicks of a short code in one {@code click_buckets} document per hour, up to
+     * {@link #bucketSize} each.
+     */
+    private String layout = "events";
+    /** Most clicks held by one bucket; a busier hour spills into further buckets. */
+    private int bucketSize = 200;
+    /** Clicks read from {@code click_events} per migration step. */
+    private int migrationBatchSize = 10_000;
+}
@@ -0,0 +1,28 @@
+package com.urlshortener.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.click-stream")
+public class ClickStreamConfig {
+    /** Live subscribers per node across all links; further subscriptions get 429. */
+    private int maxSubscribers = 1000;
+    /** Clicks buffered per subscriber; once full, the oldest are dropped and reported as a count. */
+    private int bufferSize = 256;
+    /** How long a subscriber's buffer may stay full before the subscriber is disconnected. */
+    private Duration maxLag = Duration.ofSeconds(10);
+    /**
+     * Threads kept for writing to subscribers, so a slow client never blocks click ingestion. A
+     * client whose writes block gets a thread of its own on top of these.
+     */
+    private int senders = 4;
+    /** Comment sent to idle subscribers this often, which keeps proxies open and finds dead clients. */
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+    /** Subscriptions are closed after this long; EventSource clients reconnect on their own. */
+    private Duration timeout = Duration.ofMinutes(30);
+}
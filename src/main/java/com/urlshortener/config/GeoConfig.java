@@ -0,0 +1,44 @@
+package com.urlshortener.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.geo")
+public class GeoConfig {
+    /** Whether to fall back to ip-api.com when no local database is loaded. */
+    private boolean remoteLookupEnabled = true;
+    /** Connect and read timeout for the remote lookup. */
+    private Duration remoteTimeout = Duration.ofSeconds(2);
+    /** Maximum concurrent remote lookups; further misses resolve to Unknown, uncached, rather than queue. */
+    private int remoteMaxConcurrency = 32;
+    private Database database = new Database();
+    private Cache cache = new Cache();
+
+    @Data
+    public static class Database {
+        /** CSV file of IP ranges; leave empty to disable the local database. */
+        private String path;
+        /** How often the file is checked for changes and reloaded. */
+        private Duration reloadInterval = Duration.ofSeconds(60);
+        private int startColumn = 0;
+        private int endColumn = 1;
+        private int countryColumn = 2;
+        private int regionColumn = 3;
+        private int cityColumn = 4;
+    }
+
+    @Data
+    public static class Cache {
+        /** Maximum number of IP addresses whose remote lookup result is kept. */
+        private long maximumSize = 100_000;
+        /** How long a resolved location is reused. */
+        private Duration ttl = Duration.ofHours(6);
+        /** How long a failed or unknown lookup is reused before the remote service is asked again. */
+        private Duration negativeTtl = Duration.ofMinutes(5);
+    }
+}
@@ -0,0 +1,17 @@
+package com.urlshortener.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.heavy-hitters")
+public class HeavyHitterConfig {
+    /** Counters kept per link and dimension; counts are off by at most clicks / capacity. */
+    private int linkCapacity = 32;
+    /** Counters kept per dimension across all links. */
+    private int globalCapacity = 1024;
+    /** Links tracked at once; the least recently clicked are dropped first. */
+    private long maxLinks = 10_000;
+}
@@ -4,10 +4,17 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 @Data
 @Configuration
 @ConfigurationProperties(prefix = "jwt")
 public class JwtConfig {
     private String secret;
     private Long expiration;
+    /** How long a verified token's principal is reused without verifying the token again. */
+    private Duration principalCacheTtl = Duration.ofSeconds(30);
+    private long principalCacheSize = 10_000;
+    /** How often users disabled on other nodes are picked up. */
+    private Duration revocationSyncInterval = Duration.ofSeconds(10);
 }
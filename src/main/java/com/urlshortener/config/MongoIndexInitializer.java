@@ -0,0 +1,91 @@
+package com.urlshortener.config;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Creates the indexes declared on the mapped documents. Spring Data's own index creation is off
+ * by default and runs while the context starts, so an unreachable database would stall startup;
+ * this runs once the application is ready, on a background thread that retries until MongoDB
+ * answers. Creating an index that already exists is a no-op.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.mongo.ensure-indexes", havingValue = "true", matchIfMissing = true)
+public class MongoIndexInitializer {
+
+    private static final long RETRY_DELAY_MS = 10_000;
+
+    private final MongoTemplate mongoTemplate;
+
+    private Thread worker;
+
+    @EventListener(ApplicationReadyEvent.class)
+    void ensureIndexesOnStartup() {
+        worker = new CustomizableThreadFactory("mongo-indexes-").newThread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    ensureIndexes();
+                    return;
+                } catch (DataAccessResourceFailureException e) {
+                    log.warn("MongoDB unavailable for index creation, retrying: {}", e.getMessage());
+                    try {
+                        Thread.sleep(RETRY_DELAY_MS);
+                    } catch (InterruptedException interrupted) {
+                        return;
+                    }
+                }
+            }
+        });
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    /**
+     * Creates the indexes now, on the calling thread.
+     */
+    public void ensureIndexes() {
+        var mappingContext = mongoTemplate.getConverter().getMappingContext();
+        IndexResolver resolver = IndexResolver.create(mappingContext);
+        List<MongoPersistentEntity<?>> entities = new ArrayList<>(mappingContext.getPersistentEntities());
+        for (MongoPersistentEntity<?> entity : entities) {
+            if (!entity.isAnnotationPresent(Document.class)) {
+                continue;
+            }
+            for (IndexDefinition index : resolver.resolveIndexFor(entity.getTypeInformation())) {
+                try {
+                    String name = mongoTemplate.indexOps(entity.getCollection()).createIndex(index);
+                    log.debug("Ensured index {} on {}", name, entity.getCollection());
+                } catch (DataAccessResourceFailureException e) {
+                    throw e;
+                } catch (RuntimeException e) {
+                    // e.g. a unique index over existing duplicates; the rest can still be created
+                    log.error("Could not create index {} on {}: {}", index.getIndexKeys(), entity.getCollection(), e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.urlshortener.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.redirect-cache")
+public class RedirectCacheConfig {
+    /** Maximum number of short codes held in memory; least recently used entries are evicted first. */
+    private long maximumSize = 100_000;
+    /** Upper bound on how long an entry may be served before it is re-read, so edits made on other nodes propagate. */
+    private Duration ttl = Duration.ofSeconds(60);
+}
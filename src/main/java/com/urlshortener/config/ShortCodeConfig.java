@@ -0,0 +1,19 @@
+package com.urlshortener.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.short-code")
+public class ShortCodeConfig {
+    /** {@code random} draws codes from SecureRandom; {@code block} encodes IDs leased from a shared counter. */
+    private String generator = "random";
+    /** Number of IDs leased from the counter document per round trip. */
+    private int blockSize = 1000;
+    /** Whether leased IDs are permuted before encoding so codes are not sequential. */
+    private boolean scramble = true;
+    /** Key of the permutation; must be the same on every node and must never change once codes exist. */
+    private long scrambleKey = 0x5DEECE66DL;
+}
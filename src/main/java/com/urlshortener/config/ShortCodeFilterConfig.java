@@ -0,0 +1,21 @@
+package com.urlshortener.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.short-code-filter")
+public class ShortCodeFilterConfig {
+    /** Whether lookups for unknown short codes are answered from the Bloom filter instead of MongoDB. */
+    private boolean enabled = true;
+    /** Number of short codes the first filter slice is sized for; the filter grows beyond it. */
+    private long expectedInsertions = 1_000_000;
+    /** Target probability that an unknown code is still looked up in MongoDB. */
+    private double falsePositiveRate = 0.001;
+    /** How often codes created by other nodes are pulled into the filter. */
+    private Duration syncInterval = Duration.ofSeconds(5);
+}
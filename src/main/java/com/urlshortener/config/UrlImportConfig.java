@@ -0,0 +1,23 @@
+package com.urlshortener.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.url-import")
+public class UrlImportConfig {
+    /** CSV or NDJSON file to import at startup, optionally gzipped; nothing is imported when unset. */
+    private String file;
+    /** csv or ndjson; taken from the file name when unset. */
+    private String format;
+    /** Owner of rows that do not name one. */
+    private String userId;
+    /** Rows per bulk insert. */
+    private int batchSize = 1000;
+    /** Threads validating rows, each a batch at a time, ahead of the insert in progress. */
+    private int validators = Runtime.getRuntime().availableProcessors();
+    /** Stop the application once the import is done, with a non-zero status if it failed. */
+    private boolean exitWhenDone = true;
+}
@@ -0,0 +1,46 @@
+package com.urlshortener.config;
+
+import com.urlshortener.service.UrlImportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+/**
+ * Imports {@code app.url-import.file} once the application has started. Indexes are created
+ * first, on this thread, so the unique short code index is in place before any link is inserted.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.url-import.file")
+public class UrlImportRunner implements ApplicationRunner {
+
+    private final UrlImportService urlImportService;
+    private final UrlImportConfig config;
+    private final ObjectProvider<MongoIndexInitializer> mongoIndexInitializer;
+    private final ApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int exitCode = 0;
+        try {
+            mongoIndexInitializer.ifAvailable(MongoIndexInitializer::ensureIndexes);
+            urlImportService.importFile(Path.of(config.getFile()));
+        } catch (Exception e) {
+            log.error("Import of {} failed; rerun to resume from the last checkpoint", config.getFile(), e);
+            exitCode = 1;
+        }
+        if (config.isExitWhenDone()) {
+            int code = exitCode;
+            System.exit(SpringApplication.exit(context, () -> code));
+        }
+    }
+}
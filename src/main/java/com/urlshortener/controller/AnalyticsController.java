@@ -1,15 +1,33 @@
 package com.urlshortener.controller;
 
 import com.urlshortener.dto.response.AnalyticsResponse;
+import com.urlshortener.dto.response.TopSourcesResponse;
+import com.urlshortener.model.AnalyticsQuery;
+import com.urlshortener.model.AnalyticsSnapshot;
+import com.urlshortener.model.ExportFormat;
+import com.urlshortener.model.Granularity;
+import com.urlshortener.model.TrafficSource;
 import com.urlshortener.service.AnalyticsService;
+import com.urlshortener.service.ClickExportService;
+import com.urlshortener.service.ClickStreamService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/v1/analytics")
@@ -19,14 +37,112 @@ import org.springframework.web.bind.annotation.*;
 public class AnalyticsController {
 
     private final AnalyticsService analyticsService;
+    private final ClickExportService clickExportService;
+    private final ClickStreamService clickStreamService;
 
     @GetMapping("/{shortCode}")
-    @Operation(summary = "Get analytics for a short URL")
+    @Operation(summary = "Get analytics for a short URL",
+            description = "Breakdowns cover clicks in [from, to); the time series buckets them by granularity. "
+                    + "Honours If-None-Match and If-Modified-Since with 304 Not Modified")
     public ResponseEntity<AnalyticsResponse> getAnalytics(
             @PathVariable String shortCode,
+            @Parameter(description = "Inclusive start: ISO date, local date-time or date-time with offset",
+                    example = "2023-10-27T00:00:00Z")
+            @RequestParam(required = false) String from,
+            @Parameter(description = "Exclusive end, in the same formats as from")
+            @RequestParam(required = false) String to,
+            @Parameter(description = "minute, hour, day or week")
+            @RequestParam(defaultValue = "day") String granularity,
+            @AuthenticationPrincipal UserDetails userDetails
+    ) {
+        AnalyticsQuery query = AnalyticsQuery.builder()
+                .from(RequestParams.parseTime("from", from))
+                .to(RequestParams.parseTime("to", to))
+                .granularity(Granularity.parse(granularity))
+                .build();
+        AnalyticsSnapshot analytics = analyticsService.getAnalytics(shortCode, userDetails.getUsername(), query);
+        // Conditional requests matching these validators are answered with 304 and no body
+        return ResponseEntity.ok()
+                .eTag(analytics.getEtag())
+                .lastModified(analytics.getComputedAt())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(analytics.getResponse());
+    }
+
+    @GetMapping("/{shortCode}/top")
+    @Operation(summary = "Get the most frequent referrer hosts or UTM campaigns of a short URL",
+            description = "Approximate: each count overestimates by at most its error")
+    public ResponseEntity<TopSourcesResponse> getTopSources(
+            @PathVariable String shortCode,
+            @Parameter(description = "referrer or campaign")
+            @RequestParam(defaultValue = "referrer") String source,
+            @RequestParam(defaultValue = "10") int limit,
             @AuthenticationPrincipal UserDetails userDetails
     ) {
-        AnalyticsResponse analytics = analyticsService.getAnalytics(shortCode, userDetails.getUsername());
-        return ResponseEntity.ok(analytics);
+        TopSourcesResponse top = analyticsService.getTopSources(
+                shortCode, userDetails.getUsername(), TrafficSource.parse(source), limit);
+        return ResponseEntity.ok(top);
+    }
+
+    @GetMapping("/{shortCode}/export")
+    @Operation(summary = "Export the raw clicks of a short URL",
+            description = "Streams clicks in [from, to) as NDJSON or CSV, gzip-compressed if the client accepts it")
+    public ResponseEntity<StreamingResponseBody> exportClicks(
+            @PathVariable String shortCode,
+            @Parameter(description = "ndjson or csv")
+            @RequestParam(defaultValue = "ndjson") String format,
+            @Parameter(description = "Inclusive start, in the same formats as for analytics")
+            @RequestParam(required = false) String from,
+            @Parameter(description = "Exclusive end")
+            @RequestParam(required = false) String to,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @AuthenticationPrincipal UserDetails userDetails
+    ) {
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        LocalDateTime start = RequestParams.parseTime("from", from);
+        LocalDateTime end = RequestParams.parseTime("to", to);
+        StreamingResponseBody body = clickExportService.exportClicks(
+                shortCode, userDetails.getUsername(), start, end, exportFormat);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(shortCode + "-clicks." + exportFormat.getExtension())
+                        .build()
+                        .toString())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (!acceptsGzip(acceptEncoding)) {
+            return response.body(body);
+        }
+        return response
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .body(out -> {
+                    GZIPOutputStream gzip = new GZIPOutputStream(out, 8192);
+                    body.writeTo(gzip);
+                    gzip.finish();
+                });
+    }
+
+    @GetMapping(value = "/{shortCode}/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream the clicks of a short URL as they arrive",
+            description = "Server-Sent Events: 'click' per click, 'dropped' with a count when this client fell behind")
+    public SseEmitter streamClicks(
+            @PathVariable String shortCode,
+            @AuthenticationPrincipal UserDetails userDetails
+    ) {
+        return clickStreamService.subscribe(shortCode, userDetails.getUsername());
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
     }
 }
@@ -4,14 +4,22 @@ import com.urlshortener.dto.request.LoginRequest;
 import com.urlshortener.dto.request.RegisterRequest;
 import com.urlshortener.dto.response.AuthResponse;
 import com.urlshortener.service.AuthService;
+import com.urlshortener.service.LoginGuardService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Password hashing runs on {@link LoginGuardService}'s pool; the request thread is released
+ * while it does.
+ */
 @RestController
 @RequestMapping("/api/v1/auth")
 @RequiredArgsConstructor
@@ -19,18 +27,26 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
 
     private final AuthService authService;
+    private final LoginGuardService loginGuardService;
 
     @PostMapping("/register")
     @Operation(summary = "Register a new user")
-    public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest request) {
-        AuthResponse response = authService.register(request);
-        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    public CompletableFuture<ResponseEntity<AuthResponse>> register(
+            @Valid @RequestBody RegisterRequest request,
+            HttpServletRequest httpRequest
+    ) {
+        // Registration failures are not login failures; only the address is throttled
+        return loginGuardService.submit("register", httpRequest.getRemoteAddr(), null,
+                () -> new ResponseEntity<>(authService.register(request), HttpStatus.CREATED));
     }
 
     @PostMapping("/login")
     @Operation(summary = "Login user")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
-        AuthResponse response = authService.login(request);
-        return ResponseEntity.ok(response);
+    public CompletableFuture<ResponseEntity<AuthResponse>> login(
+            @Valid @RequestBody LoginRequest request,
+            HttpServletRequest httpRequest
+    ) {
+        return loginGuardService.submit("login", httpRequest.getRemoteAddr(), request.getUsername(),
+                () -> ResponseEntity.ok(authService.login(request)));
     }
 }
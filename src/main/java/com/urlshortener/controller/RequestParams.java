@@ -0,0 +1,39 @@
+package com.urlshortener.controller;
+
+import com.urlshortener.exception.BadRequestException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Parsing of query parameters shared by the controllers.
+ */
+final class RequestParams {
+
+    private RequestParams() {
+    }
+
+    /**
+     * Parses a time bound given as an ISO date, local date-time or date-time with offset into the
+     * server's local time, which is how timestamps are stored.
+     */
+    static LocalDateTime parseTime(String name, String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            if (value.length() == 10) {
+                return LocalDate.parse(value).atStartOfDay();
+            }
+            if (value.endsWith("Z") || value.lastIndexOf('+') > 0 || value.lastIndexOf('-') > 9) {
+                return OffsetDateTime.parse(value).atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+            }
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("Invalid '" + name + "': " + value);
+        }
+    }
+}
@@ -1,10 +1,16 @@
 package com.urlshortener.controller;
 
+import com.urlshortener.dto.request.BulkCreateUrlRequest;
 import com.urlshortener.dto.request.CreateUrlRequest;
 import com.urlshortener.dto.request.UpdateUrlRequest;
+import com.urlshortener.dto.response.BulkCreateUrlResponse;
+import com.urlshortener.dto.response.UrlPageResponse;
 import com.urlshortener.dto.response.UrlResponse;
+import com.urlshortener.model.UrlCursor;
+import com.urlshortener.model.UrlListQuery;
 import com.urlshortener.service.UrlService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
@@ -18,7 +24,6 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.io.IOException;
-import java.util.List;
 
 @RestController
 @RequiredArgsConstructor
@@ -38,6 +43,18 @@ public class UrlController {
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
+    @PostMapping("/api/v1/urls/bulk")
+    @SecurityRequirement(name = "bearerAuth")
+    @Operation(summary = "Create up to 1000 short URLs at once",
+            description = "Returns a result per URL; conflicting aliases fail without affecting the others")
+    public ResponseEntity<BulkCreateUrlResponse> createShortUrls(
+            @Valid @RequestBody BulkCreateUrlRequest request,
+            @AuthenticationPrincipal UserDetails userDetails
+    ) {
+        BulkCreateUrlResponse response = urlService.createShortUrls(request.getUrls(), userDetails.getUsername());
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/r/{shortCode}")
     @Operation(summary = "Redirect to original URL")
     public void redirect(
@@ -62,10 +79,30 @@ public class UrlController {
 
     @GetMapping("/api/v1/urls")
     @SecurityRequirement(name = "bearerAuth")
-    @Operation(summary = "Get all URLs for authenticated user")
-    public ResponseEntity<List<UrlResponse>> getUserUrls(@AuthenticationPrincipal UserDetails userDetails) {
-        List<UrlResponse> urls = urlService.getUserUrls(userDetails.getUsername());
-        return ResponseEntity.ok(urls);
+    @Operation(summary = "List the authenticated user's URLs, newest first",
+            description = "Pages through links with a cursor; pass nextCursor back until it is null")
+    public ResponseEntity<UrlPageResponse> getUserUrls(
+            @Parameter(description = "nextCursor of the previous page")
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + UrlListQuery.DEFAULT_LIMIT) int limit,
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(required = false) Boolean expired,
+            @Parameter(description = "Inclusive: ISO date, local date-time or date-time with offset")
+            @RequestParam(required = false) String createdFrom,
+            @Parameter(description = "Exclusive, in the same formats as createdFrom")
+            @RequestParam(required = false) String createdTo,
+            @AuthenticationPrincipal UserDetails userDetails
+    ) {
+        UrlListQuery query = UrlListQuery.builder()
+                .after(cursor == null || cursor.isBlank() ? null : UrlCursor.decode(cursor))
+                .limit(limit)
+                .active(active)
+                .expired(expired)
+                .createdFrom(RequestParams.parseTime("createdFrom", createdFrom))
+                .createdTo(RequestParams.parseTime("createdTo", createdTo))
+                .build();
+        UrlPageResponse page = urlService.getUserUrls(userDetails.getUsername(), query);
+        return ResponseEntity.ok(page);
     }
 
     @PutMapping("/api/v1/urls/{shortCode}")
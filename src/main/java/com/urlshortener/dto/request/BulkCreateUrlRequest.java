@@ -0,0 +1,23 @@
+package com.urlshortener.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkCreateUrlRequest {
+
+    public static final int MAX_URLS = 1000;
+
+    @NotEmpty(message = "At least one URL is required")
+    @Size(max = MAX_URLS, message = "At most " + MAX_URLS + " URLs per request")
+    private List<@NotNull @Valid CreateUrlRequest> urls;
+}
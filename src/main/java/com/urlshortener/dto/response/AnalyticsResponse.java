@@ -1,11 +1,13 @@
 package com.urlshortener.dto.response;
 
+import com.urlshortener.model.Granularity;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
 import java.util.Map;
 
 @Data
@@ -19,6 +21,22 @@ public class AnalyticsResponse {
     @Schema(example = "150")
     private Long totalClicks;
 
+    @Schema(description = "Clicks between from and to", example = "42")
+    private Long clicksInRange;
+
+    @Schema(description = "Estimated distinct visitors (IP address and user agent) on the days the window touches, within about 1.6%",
+            example = "97")
+    private Long uniqueVisitors;
+
+    @Schema(description = "Inclusive start of the window, or null for the beginning", example = "2023-10-27T00:00:00")
+    private LocalDateTime from;
+
+    @Schema(description = "Exclusive end of the window, or null for now", example = "2023-10-29T00:00:00")
+    private LocalDateTime to;
+
+    @Schema(example = "hour")
+    private Granularity granularity;
+
     @Schema(example = "{\"United States\": 100, \"India\": 50}")
     private Map<String, Long> clicksByCountry;
 
@@ -31,6 +49,13 @@ public class AnalyticsResponse {
     @Schema(example = "{\"2023-10-27\": 50, \"2023-10-28\": 100}")
     private Map<String, Long> clicksByDate;
 
+    @Schema(description = "Clicks per granularity bucket, keyed by bucket start; empty buckets are omitted",
+            example = "{\"2023-10-27T13:00\": 12, \"2023-10-27T15:00\": 30}")
+    private Map<String, Long> timeSeries;
+
+    @Schema(description = "Estimated distinct visitors per day", example = "{\"2023-10-27\": 31, \"2023-10-28\": 70}")
+    private Map<String, Long> uniqueVisitorsByDate;
+
     @Schema(example = "{\"Mobile\": 80, \"Desktop\": 70}")
     private Map<String, Long> clicksByDeviceType;
 
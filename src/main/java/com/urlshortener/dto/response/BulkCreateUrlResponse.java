@@ -0,0 +1,42 @@
+package com.urlshortener.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkCreateUrlResponse {
+    @Schema(example = "998")
+    private int created;
+
+    @Schema(example = "2")
+    private int failed;
+
+    @Schema(description = "One result per requested URL, in request order")
+    private List<Result> results;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Result {
+        @Schema(description = "Position of the URL in the request", example = "0")
+        private int index;
+
+        @Schema(description = "201 if created, 409 if its short code could not be used", example = "201")
+        private int status;
+
+        @Schema(description = "The created URL; null on failure")
+        private UrlResponse url;
+
+        @Schema(description = "Why the URL was not created; null on success", example = "Custom alias already exists")
+        private String error;
+    }
+}
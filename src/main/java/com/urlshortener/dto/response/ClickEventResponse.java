@@ -0,0 +1,50 @@
+package com.urlshortener.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A click as pushed to live subscribers; the visitor's IP address and user agent are left out.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClickEventResponse {
+    @Schema(example = "a1b2c3d4")
+    private String shortCode;
+
+    private LocalDateTime clickedAt;
+
+    @Schema(example = "India")
+    private String country;
+
+    @Schema(example = "Karnataka")
+    private String region;
+
+    @Schema(example = "Bengaluru")
+    private String city;
+
+    @Schema(example = "news.ycombinator.com")
+    private String referrer;
+
+    @Schema(example = "Desktop")
+    private String deviceType;
+
+    @Schema(example = "Chrome")
+    private String browser;
+
+    @Schema(example = "Windows")
+    private String operatingSystem;
+
+    private String utmSource;
+
+    private String utmMedium;
+
+    private String utmCampaign;
+}
@@ -0,0 +1,48 @@
+package com.urlshortener.dto.response;
+
+import com.urlshortener.model.TrafficSource;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TopSourcesResponse {
+    @Schema(description = "Short code, or null for all links", example = "a1b2c3d4")
+    private String shortCode;
+
+    @Schema(example = "referrer")
+    private TrafficSource source;
+
+    @Schema(description = "Clicks with a value for this source seen by this node since it started", example = "1200")
+    private Long observedClicks;
+
+    @Schema(description = "Upper bound on how much any count below overestimates", example = "37")
+    private Long maxError;
+
+    private List<Entry> top;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+        @Schema(example = "news.ycombinator.com")
+        private String value;
+
+        @Schema(description = "Estimated clicks; never below the true count", example = "420")
+        private Long count;
+
+        @Schema(description = "How much count may overestimate", example = "3")
+        private Long error;
+
+        @Schema(description = "Whether the value is certainly in the top N")
+        private Boolean guaranteed;
+    }
+}
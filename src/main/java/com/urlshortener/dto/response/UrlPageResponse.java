@@ -0,0 +1,21 @@
+package com.urlshortener.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UrlPageResponse {
+    @Schema(description = "Links, newest first")
+    private List<UrlResponse> items;
+
+    @Schema(description = "Pass as 'cursor' to get the next page; null on the last page")
+    private String nextCursor;
+}
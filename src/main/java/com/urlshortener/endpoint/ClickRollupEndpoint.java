@@ -0,0 +1,26 @@
+package com.urlshortener.endpoint;
+
+import com.urlshortener.service.ClickRollupService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+@Endpoint(id = "clickrollups")
+public class ClickRollupEndpoint {
+
+    private final ClickRollupService clickRollupService;
+
+    /**
+     * Rolls up the clicks stored before this version started maintaining rollups. Run once
+     * after every node has been upgraded.
+     */
+    @WriteOperation
+    public Map<String, Long> backfill() {
+        return Map.of("backfilledClicks", clickRollupService.backfill());
+    }
+}
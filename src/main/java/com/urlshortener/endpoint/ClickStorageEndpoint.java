@@ -0,0 +1,29 @@
+package com.urlshortener.endpoint;
+
+import com.urlshortener.repository.BucketClickStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.click-storage.layout", havingValue = "buckets")
+@Endpoint(id = "clickstorage")
+public class ClickStorageEndpoint {
+
+    private final BucketClickStore bucketClickStore;
+
+    /**
+     * Copies the clicks stored in {@code click_events} into buckets. Run after every node writes
+     * buckets; safe to re-run after an interruption. Backfill click rollups first, as the
+     * backfill reads {@code click_events}.
+     */
+    @WriteOperation
+    public Map<String, Long> migrate() {
+        return Map.of("migratedClicks", bucketClickStore.migrateFromEvents());
+    }
+}
@@ -0,0 +1,28 @@
+package com.urlshortener.endpoint;
+
+import com.urlshortener.dto.response.TopSourcesResponse;
+import com.urlshortener.model.TrafficSource;
+import com.urlshortener.service.HeavyHitterService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Most frequent referrer hosts and UTM campaigns across all links, e.g.
+ * {@code GET /actuator/heavyhitters/campaign?limit=20}.
+ */
+@Component
+@RequiredArgsConstructor
+@Endpoint(id = "heavyhitters")
+public class HeavyHitterEndpoint {
+
+    private final HeavyHitterService heavyHitterService;
+
+    @ReadOperation
+    public TopSourcesResponse top(@Selector String source, @Nullable Integer limit) {
+        return heavyHitterService.getTop(null, TrafficSource.parse(source), limit != null && limit > 0 ? limit : 10);
+    }
+}
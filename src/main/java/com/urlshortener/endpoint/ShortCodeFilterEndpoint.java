@@ -0,0 +1,28 @@
+package com.urlshortener.endpoint;
+
+import com.urlshortener.model.ShortCodeFilterStats;
+import com.urlshortener.service.ShortCodeFilterService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Endpoint(id = "shortcodefilter")
+public class ShortCodeFilterEndpoint {
+
+    private final ShortCodeFilterService shortCodeFilterService;
+
+    @ReadOperation
+    public ShortCodeFilterStats stats() {
+        return shortCodeFilterService.getStats();
+    }
+
+    @WriteOperation
+    public ShortCodeFilterStats rebuild() {
+        shortCodeFilterService.rebuild();
+        return shortCodeFilterService.getStats();
+    }
+}
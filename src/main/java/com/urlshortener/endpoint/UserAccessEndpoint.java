@@ -0,0 +1,25 @@
+package com.urlshortener.endpoint;
+
+import com.urlshortener.service.UserAccessService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Enables or disables a user, e.g. {@code POST /actuator/users/alice} with
+ * {@code {"enabled": false}}. Disabling revokes the user's tokens.
+ */
+@Component
+@RequiredArgsConstructor
+@Endpoint(id = "users")
+public class UserAccessEndpoint {
+
+    private final UserAccessService userAccessService;
+
+    @WriteOperation
+    public void setEnabled(@Selector String username, boolean enabled) {
+        userAccessService.setEnabled(username, enabled);
+    }
+}
@@ -0,0 +1,83 @@
+package com.urlshortener.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A click embedded in a {@link ClickBucket}: a {@link ClickEvent} without its id and short code.
+ * Deliberately not {@link ClickEvent} itself, whose index annotations would otherwise be resolved
+ * under {@code clicks} and add a multikey index entry for every embedded click.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BucketedClick {
+
+    private String ipAddress;
+
+    private String country;
+
+    private String region;
+
+    private String city;
+
+    private String referrer;
+
+    private String userAgent;
+
+    private String deviceType;
+
+    private String browser;
+
+    private String operatingSystem;
+
+    private String utmSource;
+
+    private String utmMedium;
+
+    private String utmCampaign;
+
+    private LocalDateTime clickedAt;
+
+    public static BucketedClick of(ClickEvent click) {
+        return BucketedClick.builder()
+                .ipAddress(click.getIpAddress())
+                .country(click.getCountry())
+                .region(click.getRegion())
+                .city(click.getCity())
+                .referrer(click.getReferrer())
+                .userAgent(click.getUserAgent())
+                .deviceType(click.getDeviceType())
+                .browser(click.getBrowser())
+                .operatingSystem(click.getOperatingSystem())
+                .utmSource(click.getUtmSource())
+                .utmMedium(click.getUtmMedium())
+                .utmCampaign(click.getUtmCampaign())
+                .clickedAt(click.getClickedAt())
+                .build();
+    }
+
+    public ClickEvent toClickEvent(String shortCode) {
+        return ClickEvent.builder()
+                .shortCode(shortCode)
+                .ipAddress(ipAddress)
+                .country(country)
+                .region(region)
+                .city(city)
+                .referrer(referrer)
+                .userAgent(userAgent)
+                .deviceType(deviceType)
+                .browser(browser)
+                .operatingSystem(operatingSystem)
+                .utmSource(utmSource)
+                .utmMedium(utmMedium)
+                .utmCampaign(utmCampaign)
+                .clickedAt(clickedAt)
+                .build();
+    }
+}
@@ -0,0 +1,40 @@
+package com.urlshortener.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Clicks of one short code within one hour, in arrival order. The embedded clicks carry neither
+ * an id nor the short code, so a bucket costs one {@code _id} and one index entry for up to
+ * {@code app.click-storage.bucket-size} clicks.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "click_buckets")
+@CompoundIndex(name = "shortCode_start", def = "{'shortCode': 1, 'start': 1}")
+public class ClickBucket {
+
+    @Id
+    private String id;
+
+    private String shortCode;
+
+    /** Start of the hour every click in the bucket falls in. */
+    private LocalDateTime start;
+
+    private int count;
+
+    @Builder.Default
+    private List<BucketedClick> clicks = new ArrayList<>();
+}
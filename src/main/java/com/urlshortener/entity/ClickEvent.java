@@ -5,8 +5,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
-import org.springframework.data.annotation.CreatedDate;
-import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
@@ -16,12 +15,13 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "click_events")
+// Serves per-link scans and time windows; also covers lookups by shortCode alone
+@CompoundIndex(name = "shortCode_clickedAt", def = "{'shortCode': 1, 'clickedAt': 1}")
 public class ClickEvent {
 
     @Id
     private String id;
 
-    @Indexed
     private String shortCode;
 
     private String ipAddress;
@@ -48,6 +48,5 @@ public class ClickEvent {
 
     private String utmCampaign;
 
-    @CreatedDate
     private LocalDateTime clickedAt;
 }
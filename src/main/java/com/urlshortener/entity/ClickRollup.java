@@ -0,0 +1,89 @@
+package com.urlshortener.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Click counts of one short code on one day, broken down by dimension. Maintained with
+ * {@code $inc} upserts as clicks are ingested.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "click_rollups")
+public class ClickRollup {
+
+    /** {@code <shortCode>:<yyyy-MM-dd>}, so one short code's rollups form a contiguous {@code _id} range. */
+    @Id
+    private String id;
+
+    private String shortCode;
+
+    /** ISO date, which sorts chronologically as a string. */
+    private String day;
+
+    private long total;
+
+    @Builder.Default
+    private Map<String, Long> country = new HashMap<>();
+
+    @Builder.Default
+    private Map<String, Long> region = new HashMap<>();
+
+    @Builder.Default
+    private Map<String, Long> referrer = new HashMap<>();
+
+    @Builder.Default
+    private Map<String, Long> deviceType = new HashMap<>();
+
+    @Builder.Default
+    private Map<String, Long> browser = new HashMap<>();
+
+    @Builder.Default
+    private Map<String, Long> operatingSystem = new HashMap<>();
+
+    public static String idOf(String shortCode, String day) {
+        return shortCode + ":" + day;
+    }
+
+    public static ClickRollup empty(String shortCode, String day) {
+        return ClickRollup.builder()
+                .id(idOf(shortCode, day))
+                .shortCode(shortCode)
+                .day(day)
+                .build();
+    }
+
+    /**
+     * Returns the rollup {@code click} belongs to, taken from or added to {@code rollups}.
+     */
+    public static ClickRollup forClick(Map<String, ClickRollup> rollups, ClickEvent click) {
+        String day = click.getClickedAt().toLocalDate().format(DateTimeFormatter.ISO_DATE);
+        return rollups.computeIfAbsent(idOf(click.getShortCode(), day), id -> empty(click.getShortCode(), day));
+    }
+
+    public void add(ClickEvent click) {
+        total++;
+        increment(country, click.getCountry());
+        increment(region, click.getRegion());
+        increment(referrer, click.getReferrer());
+        increment(deviceType, click.getDeviceType());
+        increment(browser, click.getBrowser());
+        increment(operatingSystem, click.getOperatingSystem());
+    }
+
+    private static void increment(Map<String, Long> counts, String value) {
+        if (value != null && !value.isEmpty()) {
+            counts.merge(value, 1L, Long::sum);
+        }
+    }
+}
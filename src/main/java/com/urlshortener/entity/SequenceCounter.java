@@ -0,0 +1,19 @@
+package com.urlshortener.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "counters")
+public class SequenceCounter {
+
+    @Id
+    private String id;
+
+    private long seq;
+}
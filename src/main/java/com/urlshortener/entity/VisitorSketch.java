@@ -0,0 +1,35 @@
+package com.urlshortener.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * HyperLogLog sketch of the visitors of one short code on one day, serialized with
+ * {@link com.urlshortener.util.HyperLogLog#toBytes}. Merges are read-modify-write, guarded by
+ * {@link #version}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "visitor_sketches")
+public class VisitorSketch {
+
+    /** {@code <shortCode>:<yyyy-MM-dd>}, like {@link ClickRollup#getId()}. */
+    @Id
+    private String id;
+
+    private String shortCode;
+
+    private String day;
+
+    private byte[] sketch;
+
+    @Version
+    private Long version;
+}
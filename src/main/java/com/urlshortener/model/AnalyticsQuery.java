@@ -0,0 +1,26 @@
+package com.urlshortener.model;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Time window and bucket width of an analytics request. Either bound may be open.
+ */
+@Value
+@Builder
+public class AnalyticsQuery {
+    /** Inclusive lower bound on {@code clickedAt}, or {@code null} for the beginning. */
+    LocalDateTime from;
+    /** Exclusive upper bound on {@code clickedAt}, or {@code null} for now. */
+    LocalDateTime to;
+    @Builder.Default
+    Granularity granularity = Granularity.DAY;
+
+    public static final AnalyticsQuery ALL_TIME = AnalyticsQuery.builder().build();
+
+    public boolean contains(LocalDateTime time) {
+        return (from == null || !time.isBefore(from)) && (to == null || time.isBefore(to));
+    }
+}
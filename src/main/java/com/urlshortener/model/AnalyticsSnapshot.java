@@ -0,0 +1,17 @@
+package com.urlshortener.model;
+
+import com.urlshortener.dto.response.AnalyticsResponse;
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * An analytics result and the validators it is served with.
+ */
+@Value
+public class AnalyticsSnapshot {
+    AnalyticsResponse response;
+    /** Quoted entity tag, unique to this computation of the result. */
+    String etag;
+    Instant computedAt;
+}
@@ -0,0 +1,37 @@
+package com.urlshortener.model;
+
+import com.urlshortener.exception.BadRequestException;
+import lombok.Getter;
+
+/**
+ * File format of click exports and link imports.
+ */
+@Getter
+public enum ExportFormat {
+    /** One JSON object per line; fields without a value are left out on export. */
+    NDJSON("application/x-ndjson", "ndjson"),
+    /** A header row naming the fields, then one row per record; fields without a value are empty. */
+    CSV("text/csv;charset=UTF-8", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public static ExportFormat parse(String name) {
+        for (ExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        throw new BadRequestException("Unknown format '" + name + "', expected ndjson or csv");
+    }
+
+    @Override
+    public String toString() {
+        return name().toLowerCase();
+    }
+}
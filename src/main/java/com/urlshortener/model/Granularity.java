@@ -0,0 +1,80 @@
+package com.urlshortener.model;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.urlshortener.exception.BadRequestException;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Width of the buckets of an analytics time series. Buckets are aligned to local time; weeks
+ * start on Monday. Bucket keys are the bucket start, formatted as shown per constant.
+ */
+public enum Granularity {
+    /** {@code 2024-05-01T13:05} */
+    MINUTE(ChronoUnit.MINUTES, "yyyy-MM-dd'T'HH:mm"),
+    /** {@code 2024-05-01T13:00} */
+    HOUR(ChronoUnit.HOURS, "yyyy-MM-dd'T'HH:mm"),
+    /** {@code 2024-05-01} */
+    DAY(ChronoUnit.DAYS, "yyyy-MM-dd"),
+    /** {@code 2024-04-29}, the Monday the week starts on */
+    WEEK(ChronoUnit.WEEKS, "yyyy-MM-dd");
+
+    private final ChronoUnit unit;
+    private final DateTimeFormatter keyFormat;
+
+    Granularity(ChronoUnit unit, String keyPattern) {
+        this.unit = unit;
+        this.keyFormat = DateTimeFormatter.ofPattern(keyPattern);
+    }
+
+    /**
+     * Parses a case-insensitive granularity name, such as {@code hour}.
+     */
+    public static Granularity parse(String name) {
+        for (Granularity granularity : values()) {
+            if (granularity.name().equalsIgnoreCase(name)) {
+                return granularity;
+            }
+        }
+        throw new BadRequestException("Unknown granularity '" + name + "', expected minute, hour, day or week");
+    }
+
+    @Override
+    @JsonValue
+    public String toString() {
+        return name().toLowerCase();
+    }
+
+    public LocalDateTime truncate(LocalDateTime time) {
+        if (this == WEEK) {
+            return time.truncatedTo(ChronoUnit.DAYS).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        }
+        return time.truncatedTo(unit);
+    }
+
+    public LocalDateTime next(LocalDateTime bucketStart) {
+        return bucketStart.plus(1, unit);
+    }
+
+    public String key(LocalDateTime bucketStart) {
+        return keyFormat.format(bucketStart);
+    }
+
+    /**
+     * Whether every bucket is made of whole days, so daily aggregates can answer it.
+     */
+    public boolean isDayAligned() {
+        return this == DAY || this == WEEK;
+    }
+
+    /**
+     * Upper bound on the number of buckets between {@code from} and {@code to}.
+     */
+    public long bucketsBetween(LocalDateTime from, LocalDateTime to) {
+        return unit.between(truncate(from), to) + 1;
+    }
+}
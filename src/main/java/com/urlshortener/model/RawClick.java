@@ -0,0 +1,22 @@
+package com.urlshortener.model;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * A click as captured on the redirect path, before geo and user-agent enrichment.
+ */
+@Value
+@Builder
+public class RawClick {
+    String shortCode;
+    String ipAddress;
+    String referrer;
+    String userAgent;
+    String utmSource;
+    String utmMedium;
+    String utmCampaign;
+    LocalDateTime clickedAt;
+}
@@ -0,0 +1,32 @@
+package com.urlshortener.model;
+
+import com.urlshortener.entity.ShortUrl;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * The subset of a {@link ShortUrl} needed to serve a redirect, kept in the redirect cache.
+ */
+@Value
+@Builder(toBuilder = true)
+public class RedirectTarget {
+    String shortCode;
+    String originalUrl;
+    LocalDateTime expiresAt;
+    boolean active;
+
+    public static RedirectTarget from(ShortUrl shortUrl) {
+        return RedirectTarget.builder()
+                .shortCode(shortUrl.getShortCode())
+                .originalUrl(shortUrl.getOriginalUrl())
+                .expiresAt(shortUrl.getExpiresAt())
+                .active(shortUrl.isActive())
+                .build();
+    }
+
+    public boolean isExpiredAt(LocalDateTime now) {
+        return expiresAt != null && expiresAt.isBefore(now);
+    }
+}
@@ -0,0 +1,16 @@
+package com.urlshortener.model;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class ShortCodeFilterStats {
+    boolean enabled;
+    boolean ready;
+    long insertions;
+    long deletionsSinceBuild;
+    long sizeInBytes;
+    double targetFalsePositiveRate;
+    double expectedFalsePositiveRate;
+}
@@ -0,0 +1,52 @@
+package com.urlshortener.model;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.urlshortener.entity.ClickEvent;
+import com.urlshortener.exception.BadRequestException;
+
+/**
+ * Click attribute whose most frequent values are tracked.
+ */
+public enum TrafficSource {
+    /** Referrer host, or {@code direct}, {@code social} or {@code search}. */
+    REFERRER {
+        @Override
+        public String valueOf(ClickEvent click) {
+            return click.getReferrer();
+        }
+    },
+    /** {@code utm_source / utm_medium / utm_campaign}, with {@code -} for missing parts. */
+    CAMPAIGN {
+        @Override
+        public String valueOf(ClickEvent click) {
+            if (click.getUtmSource() == null && click.getUtmMedium() == null && click.getUtmCampaign() == null) {
+                return null;
+            }
+            return part(click.getUtmSource()) + " / " + part(click.getUtmMedium()) + " / " + part(click.getUtmCampaign());
+        }
+    };
+
+    /**
+     * Returns the value {@code click} contributes, or {@code null} if it has none.
+     */
+    public abstract String valueOf(ClickEvent click);
+
+    public static TrafficSource parse(String name) {
+        for (TrafficSource source : values()) {
+            if (source.name().equalsIgnoreCase(name)) {
+                return source;
+            }
+        }
+        throw new BadRequestException("Unknown source '" + name + "', expected referrer or campaign");
+    }
+
+    @Override
+    @JsonValue
+    public String toString() {
+        return name().toLowerCase();
+    }
+
+    private static String part(String value) {
+        return value == null || value.isEmpty() ? "-" : value;
+    }
+}
@@ -0,0 +1,14 @@
+package com.urlshortener.model;
+
+import lombok.Value;
+
+import java.util.Map;
+
+/**
+ * Estimated distinct visitors over a range of days, and per day.
+ */
+@Value
+public class UniqueVisitors {
+    long total;
+    Map<String, Long> byDate;
+}
@@ -0,0 +1,37 @@
+package com.urlshortener.model;
+
+import com.urlshortener.exception.BadRequestException;
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a listing of links ordered by {@code (createdAt, _id)} descending: the key of the
+ * last link returned. Handed to clients as an opaque string.
+ */
+@Value
+public class UrlCursor {
+    LocalDateTime createdAt;
+    String id;
+
+    public String encode() {
+        String key = createdAt + "," + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static UrlCursor decode(String cursor) {
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int comma = key.indexOf(',');
+            if (comma < 0 || comma == key.length() - 1) {
+                throw new IllegalArgumentException(key);
+            }
+            return new UrlCursor(LocalDateTime.parse(key.substring(0, comma)), key.substring(comma + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid 'cursor'");
+        }
+    }
+}
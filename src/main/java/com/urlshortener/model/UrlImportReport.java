@@ -0,0 +1,21 @@
+package com.urlshortener.model;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+
+/**
+ * Row counts of one run of an import.
+ */
+@Value
+@Builder
+public class UrlImportReport {
+    /** Rows a previous run already handled, per the checkpoint. */
+    long resumedAfter;
+    long imported;
+    /** Rows inserted by an earlier run that stopped before recording its checkpoint. */
+    long alreadyImported;
+    long rejected;
+    Duration elapsed;
+}
@@ -0,0 +1,28 @@
+package com.urlshortener.model;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filters and page position of a listing of a user's links. Unset filters match every link.
+ */
+@Value
+@Builder
+public class UrlListQuery {
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+
+    Boolean active;
+    /** Whether {@code expiresAt} has passed; links without one never expire. */
+    Boolean expired;
+    /** Inclusive lower bound on {@code createdAt}. */
+    LocalDateTime createdFrom;
+    /** Exclusive upper bound on {@code createdAt}. */
+    LocalDateTime createdTo;
+    /** Continue after this link, or {@code null} for the newest. */
+    UrlCursor after;
+    @Builder.Default
+    int limit = DEFAULT_LIMIT;
+}
@@ -0,0 +1,271 @@
+package com.urlshortener.repository;
+
+import com.mongodb.ErrorCategory;
+import com.urlshortener.config.ClickStorageConfig;
+import com.urlshortener.entity.BucketedClick;
+import com.urlshortener.entity.ClickBucket;
+import com.urlshortener.entity.ClickEvent;
+import com.urlshortener.entity.SequenceCounter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Clicks grouped into {@code click_buckets}, one document per short code and hour holding up to
+ * {@code app.click-storage.bucket-size} clicks. Writes append to the current bucket with a
+ * {@code $push} upsert, so a batch costs one write per short code and hour rather than per
+ * click; windows are read through the {@code (shortCode, start)} index and trimmed to the exact
+ * bounds as clicks are unpacked.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.click-storage.layout", havingValue = "buckets")
+public class BucketClickStore implements ClickStore {
+
+    static final String MIGRATION_CHECKPOINT_ID = "click_buckets_migration";
+
+    // clickedAt is converted from the JVM's zone on write, so hours are cut in it too
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private final MongoTemplate mongoTemplate;
+    private final ClickStorageConfig config;
+
+    @Override
+    public void insert(List<ClickEvent> clicks) {
+        if (clicks.isEmpty()) {
+            return;
+        }
+        Map<String, List<Document>> groups = new LinkedHashMap<>();
+        for (ClickEvent click : clicks) {
+            LocalDateTime start = click.getClickedAt().truncatedTo(ChronoUnit.HOURS);
+            groups.computeIfAbsent(click.getShortCode() + '\n' + start, key -> new ArrayList<>()).add(element(click));
+        }
+
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ClickBucket.class);
+        int bucketSize = config.getBucketSize();
+        groups.forEach((key, elements) -> {
+            int separator = key.indexOf('\n');
+            String shortCode = key.substring(0, separator);
+            Date start = toDate(LocalDateTime.parse(key.substring(separator + 1)));
+            for (int from = 0; from < elements.size(); from += bucketSize) {
+                List<Document> chunk = elements.subList(from, Math.min(from + bucketSize, elements.size()));
+                // Appends to a bucket with room for the whole chunk, or starts a new one
+                bulkOps.upsert(
+                        Query.query(Criteria.where("shortCode").is(shortCode)
+                                .and("start").is(start)
+                                .and("count").lte(bucketSize - chunk.size())),
+                        new Update().push("clicks").each(chunk.toArray()).inc("count", chunk.size()));
+            }
+        });
+        bulkOps.execute();
+    }
+
+    @Override
+    public List<ClickEvent> findByShortCode(String shortCode) {
+        return find(shortCode, null, null);
+    }
+
+    @Override
+    public List<ClickEvent> findByShortCodeAndClickedAtBetween(String shortCode, LocalDateTime start, LocalDateTime end) {
+        List<ClickEvent> clicks = find(shortCode, start, end);
+        clicks.removeIf(click -> !click.getClickedAt().isAfter(start));
+        return clicks;
+    }
+
+    @Override
+    public long countByShortCode(String shortCode) {
+        Document result = mongoTemplate.aggregate(
+                Aggregation.newAggregation(
+                        Aggregation.match(Criteria.where("shortCode").is(shortCode)),
+                        Aggregation.group().sum("count").as("total")),
+                collectionName(),
+                Document.class).getUniqueMappedResult();
+        return result == null ? 0 : ((Number) result.get("total")).longValue();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Stream<Document> stream(String shortCode, LocalDateTime from, LocalDateTime to, String... fields) {
+        Query query = Query.query(buckets(shortCode, from, to));
+        for (String field : fields) {
+            query.fields().include("clicks." + field);
+        }
+        query.fields().include("clicks.clickedAt").exclude("_id");
+
+        Date fromDate = from == null ? null : toDate(from);
+        Date toDate = to == null ? null : toDate(to);
+        return mongoTemplate.stream(query, Document.class, collectionName())
+                .flatMap(bucket -> ((List<Document>) bucket.get("clicks", List.class)).stream())
+                .filter(click -> inWindow(click.getDate("clickedAt"), fromDate, toDate));
+    }
+
+    @Override
+    public List<AggregationOperation> matchClicks(String shortCode, LocalDateTime from, LocalDateTime to) {
+        List<AggregationOperation> stages = new ArrayList<>(List.of(
+                Aggregation.match(buckets(shortCode, from, to)),
+                Aggregation.unwind("clicks"),
+                Aggregation.replaceRoot("clicks")));
+        if (from != null || to != null) {
+            Criteria clickedAt = Criteria.where("clickedAt");
+            if (from != null) {
+                clickedAt.gte(toDate(from));
+            }
+            if (to != null) {
+                clickedAt.lt(toDate(to));
+            }
+            stages.add(Aggregation.match(clickedAt));
+        }
+        return stages;
+    }
+
+    @Override
+    public String collectionName() {
+        return mongoTemplate.getCollectionName(ClickBucket.class);
+    }
+
+    /**
+     * Copies {@code click_events} into buckets, in {@code _id} order, and returns how many
+     * clicks were copied. Progress is checkpointed after every batch, and a bucket takes the id
+     * of its first click, so an interrupted run can simply be started again: batches are cut
+     * the same way and buckets already written are skipped. {@code click_events} is left as is.
+     */
+    public long migrateFromEvents() {
+        String eventsCollection = mongoTemplate.getCollectionName(ClickEvent.class);
+        String countersCollection = mongoTemplate.getCollectionName(SequenceCounter.class);
+        Document checkpoint = mongoTemplate.findById(MIGRATION_CHECKPOINT_ID, Document.class, countersCollection);
+        ObjectId lastId = checkpoint == null ? null : checkpoint.getObjectId("lastId");
+
+        long migrated = 0;
+        while (true) {
+            Query query = lastId == null ? new Query() : Query.query(Criteria.where("_id").gt(lastId));
+            query.with(Sort.by("_id")).limit(config.getMigrationBatchSize());
+            List<Document> events = mongoTemplate.find(query, Document.class, eventsCollection);
+            if (events.isEmpty()) {
+                break;
+            }
+
+            insertIgnoringDuplicates(bucketsOf(events));
+            lastId = events.get(events.size() - 1).getObjectId("_id");
+            mongoTemplate.upsert(
+                    Query.query(Criteria.where("_id").is(MIGRATION_CHECKPOINT_ID)),
+                    new Update().set("lastId", lastId),
+                    countersCollection);
+            migrated += events.size();
+            log.info("Migrated {} clicks to buckets, up to {}", migrated, lastId);
+        }
+        return migrated;
+    }
+
+    private List<Document> bucketsOf(List<Document> events) {
+        Map<String, List<Document>> groups = new LinkedHashMap<>();
+        for (Document event : events) {
+            Date clickedAt = event.getDate("clickedAt");
+            LocalDateTime start = LocalDateTime.ofInstant(clickedAt.toInstant(), ZONE).truncatedTo(ChronoUnit.HOURS);
+            groups.computeIfAbsent(event.getString("shortCode") + '\n' + start, key -> new ArrayList<>()).add(event);
+        }
+
+        List<Document> buckets = new ArrayList<>();
+        int bucketSize = config.getBucketSize();
+        groups.forEach((key, group) -> {
+            int separator = key.indexOf('\n');
+            for (int from = 0; from < group.size(); from += bucketSize) {
+                List<Document> chunk = group.subList(from, Math.min(from + bucketSize, group.size()));
+                List<Document> elements = new ArrayList<>(chunk.size());
+                for (Document event : chunk) {
+                    Document element = new Document(event);
+                    element.remove("_id");
+                    element.remove("shortCode");
+                    element.remove("_class");
+                    elements.add(element);
+                }
+                buckets.add(new Document("_id", chunk.get(0).getObjectId("_id"))
+                        .append("shortCode", key.substring(0, separator))
+                        .append("start", toDate(LocalDateTime.parse(key.substring(separator + 1))))
+                        .append("count", elements.size())
+                        .append("clicks", elements));
+            }
+        });
+        return buckets;
+    }
+
+    private void insertIgnoringDuplicates(List<Document> buckets) {
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, collectionName()).insert(buckets).execute();
+        } catch (BulkOperationException e) {
+            // Written by an earlier, interrupted run
+            boolean onlyDuplicates = e.getErrors().stream()
+                    .allMatch(error -> ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY);
+            if (!onlyDuplicates) {
+                throw e;
+            }
+        }
+    }
+
+    private List<ClickEvent> find(String shortCode, LocalDateTime from, LocalDateTime to) {
+        Query query = Query.query(buckets(shortCode, from, to)).with(Sort.by("start"));
+        List<ClickEvent> clicks = new ArrayList<>();
+        for (ClickBucket bucket : mongoTemplate.find(query, ClickBucket.class)) {
+            for (BucketedClick click : bucket.getClicks()) {
+                if ((from == null || !click.getClickedAt().isBefore(from)) && (to == null || click.getClickedAt().isBefore(to))) {
+                    clicks.add(click.toClickEvent(shortCode));
+                }
+            }
+        }
+        return clicks;
+    }
+
+    /**
+     * Buckets of {@code shortCode} that may hold clicks in {@code [from, to)}.
+     */
+    private static Criteria buckets(String shortCode, LocalDateTime from, LocalDateTime to) {
+        Criteria criteria = Criteria.where("shortCode").is(shortCode);
+        if (from != null || to != null) {
+            Criteria start = criteria.and("start");
+            if (from != null) {
+                start.gte(toDate(from.truncatedTo(ChronoUnit.HOURS)));
+            }
+            if (to != null) {
+                start.lt(toDate(to));
+            }
+        }
+        return criteria;
+    }
+
+    private Document element(ClickEvent click) {
+        Document element = new Document();
+        mongoTemplate.getConverter().write(BucketedClick.of(click), element);
+        element.remove("_class");
+        return element;
+    }
+
+    private static boolean inWindow(Date clickedAt, Date from, Date to) {
+        return clickedAt != null && (from == null || !clickedAt.before(from)) && (to == null || clickedAt.before(to));
+    }
+
+    private static Date toDate(LocalDateTime time) {
+        return Date.from(time.atZone(ZONE).toInstant());
+    }
+}
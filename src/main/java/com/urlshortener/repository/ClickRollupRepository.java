@@ -0,0 +1,9 @@
+package com.urlshortener.repository;
+
+import com.urlshortener.entity.ClickRollup;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ClickRollupRepository extends MongoRepository<ClickRollup, String>, ClickRollupRepositoryCustom {
+}
@@ -0,0 +1,20 @@
+package com.urlshortener.repository;
+
+import com.urlshortener.entity.ClickRollup;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface ClickRollupRepositoryCustom {
+    /**
+     * Adds each rollup's counts to the stored rollup with the same id, creating it if needed.
+     */
+    void incrementRollups(Collection<ClickRollup> deltas);
+
+    /**
+     * Returns the daily rollups of {@code shortCode} for days in {@code [fromDay, toDay)}, oldest
+     * first. A {@code null} bound leaves that side open.
+     */
+    List<ClickRollup> findRollups(String shortCode, LocalDate fromDay, LocalDate toDay);
+}
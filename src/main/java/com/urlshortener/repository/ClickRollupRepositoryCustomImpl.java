@@ -0,0 +1,92 @@
+package com.urlshortener.repository;
+
+import com.urlshortener.entity.ClickRollup;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class ClickRollupRepositoryCustomImpl implements ClickRollupRepositoryCustom {
+
+    // Dimension values become field names, which may not contain '.' or start with '$'
+    private static final char DOT_REPLACEMENT = '\uFF0E';
+    private static final char DOLLAR_REPLACEMENT = '\uFF04';
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void incrementRollups(Collection<ClickRollup> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ClickRollup.class);
+        for (ClickRollup delta : deltas) {
+            Update update = new Update()
+                    .setOnInsert("shortCode", delta.getShortCode())
+                    .setOnInsert("day", delta.getDay())
+                    .inc("total", delta.getTotal());
+            inc(update, "country", delta.getCountry());
+            inc(update, "region", delta.getRegion());
+            inc(update, "referrer", delta.getReferrer());
+            inc(update, "deviceType", delta.getDeviceType());
+            inc(update, "browser", delta.getBrowser());
+            inc(update, "operatingSystem", delta.getOperatingSystem());
+            bulkOps.upsert(Query.query(Criteria.where("_id").is(delta.getId())), update);
+        }
+        bulkOps.execute();
+    }
+
+    @Override
+    public List<ClickRollup> findRollups(String shortCode, LocalDate fromDay, LocalDate toDay) {
+        // ':' is followed by ';', so the open range covers exactly the ids "<shortCode>:<day>";
+        // ISO dates sort chronologically, so day bounds narrow it without a secondary index
+        Query query = Query.query(Criteria.where("_id")
+                        .gte(ClickRollup.idOf(shortCode, fromDay == null ? "" : fromDay.format(DateTimeFormatter.ISO_DATE)))
+                        .lt(toDay == null ? shortCode + ";" : ClickRollup.idOf(shortCode, toDay.format(DateTimeFormatter.ISO_DATE))))
+                .with(Sort.by("_id"));
+        List<ClickRollup> rollups = mongoTemplate.find(query, ClickRollup.class);
+        for (ClickRollup rollup : rollups) {
+            rollup.setCountry(unescapeKeys(rollup.getCountry()));
+            rollup.setRegion(unescapeKeys(rollup.getRegion()));
+            rollup.setReferrer(unescapeKeys(rollup.getReferrer()));
+            rollup.setDeviceType(unescapeKeys(rollup.getDeviceType()));
+            rollup.setBrowser(unescapeKeys(rollup.getBrowser()));
+            rollup.setOperatingSystem(unescapeKeys(rollup.getOperatingSystem()));
+        }
+        return rollups;
+    }
+
+    private static void inc(Update update, String field, Map<String, Long> counts) {
+        counts.forEach((value, count) -> update.inc(field + "." + escapeKey(value), count));
+    }
+
+    static String escapeKey(String key) {
+        String escaped = key.replace('.', DOT_REPLACEMENT);
+        return escaped.startsWith("$") ? DOLLAR_REPLACEMENT + escaped.substring(1) : escaped;
+    }
+
+    static String unescapeKey(String key) {
+        String unescaped = key.replace(DOT_REPLACEMENT, '.');
+        return !unescaped.isEmpty() && unescaped.charAt(0) == DOLLAR_REPLACEMENT ? "$" + unescaped.substring(1) : unescaped;
+    }
+
+    private static Map<String, Long> unescapeKeys(Map<String, Long> counts) {
+        if (counts == null) {
+            return new HashMap<>();
+        }
+        Map<String, Long> unescaped = new HashMap<>(counts.size() * 2);
+        counts.forEach((key, count) -> unescaped.put(unescapeKey(key), count));
+        return unescaped;
+    }
+}
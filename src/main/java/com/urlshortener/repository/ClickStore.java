@@ -0,0 +1,45 @@
+package com.urlshortener.repository;
+
+import com.urlshortener.entity.ClickEvent;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Storage of raw clicks, in the layout selected by {@code app.click-storage.layout}. Documents
+ * handed out by {@link #stream} and produced by {@link #matchClicks} use {@link ClickEvent}'s
+ * field names whatever the layout.
+ */
+public interface ClickStore {
+
+    void insert(List<ClickEvent> clicks);
+
+    List<ClickEvent> findByShortCode(String shortCode);
+
+    /**
+     * Returns the clicks of {@code shortCode} strictly between {@code start} and {@code end}.
+     */
+    List<ClickEvent> findByShortCodeAndClickedAtBetween(String shortCode, LocalDateTime start, LocalDateTime end);
+
+    long countByShortCode(String shortCode);
+
+    /**
+     * Streams the clicks of {@code shortCode} with {@code clickedAt} in {@code [from, to)}, either
+     * bound may be {@code null}, reading only {@code fields} and {@code clickedAt}. The stream
+     * holds a cursor and must be closed.
+     */
+    Stream<Document> stream(String shortCode, LocalDateTime from, LocalDateTime to, String... fields);
+
+    /**
+     * Aggregation stages yielding one document per click of {@code shortCode} in {@code [from, to)}.
+     */
+    List<AggregationOperation> matchClicks(String shortCode, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Collection the stages of {@link #matchClicks} run against.
+     */
+    String collectionName();
+}
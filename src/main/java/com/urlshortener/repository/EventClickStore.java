@@ -0,0 +1,91 @@
+package com.urlshortener.repository;
+
+import com.urlshortener.entity.ClickEvent;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * One {@code click_events} document per click. Windows are read through the
+ * {@code (shortCode, clickedAt)} index.
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.click-storage.layout", havingValue = "events", matchIfMissing = true)
+public class EventClickStore implements ClickStore {
+
+    private final ClickEventRepository clickEventRepository;
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void insert(List<ClickEvent> clicks) {
+        clickEventRepository.insert(clicks);
+    }
+
+    @Override
+    public List<ClickEvent> findByShortCode(String shortCode) {
+        return clickEventRepository.findByShortCode(shortCode);
+    }
+
+    @Override
+    public List<ClickEvent> findByShortCodeAndClickedAtBetween(String shortCode, LocalDateTime start, LocalDateTime end) {
+        return clickEventRepository.findByShortCodeAndClickedAtBetween(shortCode, start, end);
+    }
+
+    @Override
+    public long countByShortCode(String shortCode) {
+        return clickEventRepository.countByShortCode(shortCode);
+    }
+
+    @Override
+    public Stream<Document> stream(String shortCode, LocalDateTime from, LocalDateTime to, String... fields) {
+        Query query = Query.query(window(shortCode, from, to));
+        query.fields().include(fields).include("clickedAt").exclude("_id");
+        return mongoTemplate.stream(query, Document.class, collectionName());
+    }
+
+    @Override
+    public List<AggregationOperation> matchClicks(String shortCode, LocalDateTime from, LocalDateTime to) {
+        return List.of(Aggregation.match(window(shortCode, from, to)));
+    }
+
+    @Override
+    public String collectionName() {
+        return mongoTemplate.getCollectionName(ClickEvent.class);
+    }
+
+    /**
+     * Bounds are passed as {@link Date}s: untyped aggregations do not run values through the
+     * converter, and the driver would encode a {@link LocalDateTime} as UTC rather than in the
+     * JVM's zone, which is how {@code clickedAt} was written.
+     */
+    private static Criteria window(String shortCode, LocalDateTime from, LocalDateTime to) {
+        Criteria criteria = Criteria.where("shortCode").is(shortCode);
+        if (from != null || to != null) {
+            Criteria clickedAt = criteria.and("clickedAt");
+            if (from != null) {
+                clickedAt.gte(toDate(from));
+            }
+            if (to != null) {
+                clickedAt.lt(toDate(to));
+            }
+        }
+        return criteria;
+    }
+
+    private static Date toDate(LocalDateTime time) {
+        return Date.from(time.atZone(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -9,9 +9,8 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ShortUrlRepository extends MongoRepository<ShortUrl, String> {
+public interface ShortUrlRepository extends MongoRepository<ShortUrl, String>, ShortUrlRepositoryCustom {
     Optional<ShortUrl> findByShortCode(String shortCode);
-    List<ShortUrl> findByUserId(String userId);
     List<ShortUrl> findByUserIdAndActiveTrue(String userId);
     boolean existsByShortCode(String shortCode);
     List<ShortUrl> findByExpiresAtBeforeAndActiveTrue(LocalDateTime dateTime);
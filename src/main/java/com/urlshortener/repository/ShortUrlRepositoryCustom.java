@@ -0,0 +1,39 @@
+package com.urlshortener.repository;
+
+import com.urlshortener.entity.ShortUrl;
+import com.urlshortener.model.UrlListQuery;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public interface ShortUrlRepositoryCustom {
+    void incrementTotalClicks(Map<String, Long> deltasByShortCode);
+    void deactivate(String shortCode);
+
+    /**
+     * Writes the fields an owner can edit, and {@code updatedAt}, leaving {@code totalClicks}
+     * to its {@code $inc} writers.
+     */
+    void updateDetails(ShortUrl shortUrl);
+
+    /**
+     * Returns up to {@code limit} of the user's links matching {@code query}, newest first, with
+     * only the fields a listing shows. {@code now} decides which links have expired.
+     */
+    List<ShortUrl> findPage(String userId, UrlListQuery query, LocalDateTime now, int limit);
+
+    /**
+     * Returns the ids of the links using any of {@code shortCodes}, by short code, in one
+     * {@code $in} query.
+     */
+    Map<String, String> findIdsByShortCode(Collection<String> shortCodes);
+
+    /**
+     * Inserts {@code urls} in one unordered bulk write and returns the positions in {@code urls}
+     * rejected because their short code is taken. The rest are inserted; other errors are thrown.
+     */
+    Set<Integer> insertAllUnordered(List<ShortUrl> urls);
+}
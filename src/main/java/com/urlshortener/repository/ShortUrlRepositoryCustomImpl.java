@@ -0,0 +1,137 @@
+package com.urlshortener.repository;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.urlshortener.entity.ShortUrl;
+import com.urlshortener.model.UrlCursor;
+import com.urlshortener.model.UrlListQuery;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@RequiredArgsConstructor
+public class ShortUrlRepositoryCustomImpl implements ShortUrlRepositoryCustom {
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void incrementTotalClicks(Map<String, Long> deltasByShortCode) {
+        if (deltasByShortCode.isEmpty()) {
+            return;
+        }
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ShortUrl.class);
+        deltasByShortCode.forEach((shortCode, delta) ->
+                bulkOps.updateOne(byShortCode(shortCode), new Update().inc("totalClicks", delta)));
+        bulkOps.execute();
+    }
+
+    @Override
+    public void deactivate(String shortCode) {
+        mongoTemplate.updateFirst(byShortCode(shortCode), new Update().set("active", false), ShortUrl.class);
+    }
+
+    @Override
+    public void updateDetails(ShortUrl shortUrl) {
+        mongoTemplate.updateFirst(byShortCode(shortUrl.getShortCode()),
+                new Update()
+                        .set("originalUrl", shortUrl.getOriginalUrl())
+                        .set("expiresAt", shortUrl.getExpiresAt())
+                        .set("active", shortUrl.isActive())
+                        .set("updatedAt", shortUrl.getUpdatedAt()),
+                ShortUrl.class);
+    }
+
+    /**
+     * Walks the {@code (userId, createdAt, _id)} index from the cursor on. Status filters are
+     * applied to the documents the walk reaches, so a page costs about {@code limit} reads unless
+     * they filter out most links.
+     */
+    @Override
+    public List<ShortUrl> findPage(String userId, UrlListQuery listQuery, LocalDateTime now, int limit) {
+        List<Criteria> conditions = new ArrayList<>();
+        if (listQuery.getCreatedFrom() != null) {
+            conditions.add(Criteria.where("createdAt").gte(listQuery.getCreatedFrom()));
+        }
+        if (listQuery.getCreatedTo() != null) {
+            conditions.add(Criteria.where("createdAt").lt(listQuery.getCreatedTo()));
+        }
+        UrlCursor after = listQuery.getAfter();
+        if (after != null) {
+            conditions.add(new Criteria().orOperator(
+                    Criteria.where("createdAt").lt(after.getCreatedAt()),
+                    Criteria.where("createdAt").is(after.getCreatedAt()).and("id").lt(after.getId())));
+        }
+        if (listQuery.getActive() != null) {
+            conditions.add(Criteria.where("active").is(listQuery.getActive()));
+        }
+        if (Boolean.TRUE.equals(listQuery.getExpired())) {
+            conditions.add(Criteria.where("expiresAt").lt(now));
+        } else if (Boolean.FALSE.equals(listQuery.getExpired())) {
+            conditions.add(new Criteria().orOperator(
+                    Criteria.where("expiresAt").is(null),
+                    Criteria.where("expiresAt").gte(now)));
+        }
+
+        Criteria criteria = Criteria.where("userId").is(userId);
+        if (!conditions.isEmpty()) {
+            criteria.andOperator(conditions);
+        }
+        Query query = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, "createdAt", "id"))
+                .limit(limit);
+        query.fields().include("shortCode", "originalUrl", "totalClicks", "expiresAt", "createdAt", "active");
+        return mongoTemplate.find(query, ShortUrl.class);
+    }
+
+    @Override
+    public Map<String, String> findIdsByShortCode(Collection<String> shortCodes) {
+        Map<String, String> ids = new HashMap<>();
+        if (shortCodes.isEmpty()) {
+            return ids;
+        }
+        Query query = Query.query(Criteria.where("shortCode").in(shortCodes));
+        query.fields().include("shortCode");
+        for (ShortUrl found : mongoTemplate.find(query, ShortUrl.class)) {
+            ids.put(found.getShortCode(), found.getId());
+        }
+        return ids;
+    }
+
+    @Override
+    public Set<Integer> insertAllUnordered(List<ShortUrl> urls) {
+        Set<Integer> duplicates = new HashSet<>();
+        if (urls.isEmpty()) {
+            return duplicates;
+        }
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ShortUrl.class).insert(urls).execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                if (error.getCode() != DUPLICATE_KEY) {
+                    throw e;
+                }
+                duplicates.add(error.getIndex());
+            }
+        }
+        return duplicates;
+    }
+
+    private Query byShortCode(String shortCode) {
+        return Query.query(Criteria.where("shortCode").is(shortCode));
+    }
+}
@@ -0,0 +1,14 @@
+package com.urlshortener.repository;
+
+import com.urlshortener.entity.VisitorSketch;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface VisitorSketchRepository extends MongoRepository<VisitorSketch, String> {
+    @Query(value = "{ '_id': { $gte: ?0, $lt: ?1 } }", sort = "{ '_id': 1 }")
+    List<VisitorSketch> findByIdRange(String fromId, String toId);
+}
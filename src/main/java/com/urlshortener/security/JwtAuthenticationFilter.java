@@ -1,27 +1,55 @@
 package com.urlshortener.security;
 
+import com.urlshortener.security.JwtPrincipalCache.TokenPrincipal;
+import com.urlshortener.service.UserAccessService;
+import com.urlshortener.util.StageTimers;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 
+/**
+ * Authenticates bearer tokens without touching the database: the role and enabled flag come
+ * from the token, verified principals are reused for {@code jwt.principal-cache-ttl}, and
+ * tokens of disabled users are refused through {@link UserAccessService#isRevoked}.
+ */
 @Component
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider jwtTokenProvider;
     private final UserDetailsService userDetailsService;
+    private final JwtPrincipalCache jwtPrincipalCache;
+    private final UserAccessService userAccessService;
+    private final StageTimers<AuthStage, AuthOutcome> authTimers;
+
+    public JwtAuthenticationFilter(
+            JwtTokenProvider jwtTokenProvider,
+            UserDetailsService userDetailsService,
+            JwtPrincipalCache jwtPrincipalCache,
+            UserAccessService userAccessService,
+            MeterRegistry meterRegistry
+    ) {
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.userDetailsService = userDetailsService;
+        this.jwtPrincipalCache = jwtPrincipalCache;
+        this.userAccessService = userAccessService;
+        this.authTimers = new StageTimers<>(meterRegistry, "auth.jwt", AuthStage.class, AuthOutcome.class);
+    }
 
     @Override
     protected void doFilterInternal(
@@ -32,22 +60,32 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String username;
+        StageTimers<AuthStage, AuthOutcome>.Timing timing = authTimers.start();
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            timing.finish(AuthOutcome.ANONYMOUS);
             filterChain.doFilter(request, response);
             return;
         }
 
         jwt = authHeader.substring(7);
+        AuthOutcome outcome = AuthOutcome.INVALID_TOKEN;
 
         try {
-            username = jwtTokenProvider.extractUsername(jwt);
-
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            if (SecurityContextHolder.getContext().getAuthentication() != null) {
+                outcome = AuthOutcome.AUTHENTICATED;
+            } else {
+                TokenPrincipal principal = jwtPrincipalCache.get(jwt);
+                if (principal == null) {
+                    principal = verify(jwt, timing);
+                    jwtPrincipalCache.put(jwt, principal);
+                } else {
+                    timing.endStage(AuthStage.PARSE);
+                }
 
-                if (jwtTokenProvider.isTokenValid(jwt, userDetails.getUsername())) {
+                UserDetails userDetails = principal.user();
+                if (userDetails.isEnabled()
+                        && !userAccessService.isRevoked(userDetails.getUsername(), principal.issuedAt())) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
                             null,
@@ -55,12 +93,63 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     );
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
+                    outcome = AuthOutcome.AUTHENTICATED;
+                } else {
+                    outcome = AuthOutcome.REJECTED;
                 }
+                timing.endStage(AuthStage.VALIDATE);
             }
         } catch (Exception e) {
+            outcome = failureOutcome(e);
             logger.error("Cannot set user authentication: {}", e);
         }
+        timing.finish(outcome);
 
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Verifies {@code jwt} and builds its principal from the claims. Tokens issued before they
+     * carried the user's role fall back to loading the user, once per cache entry.
+     */
+    private TokenPrincipal verify(String jwt, StageTimers<AuthStage, AuthOutcome>.Timing timing) {
+        Claims claims = jwtTokenProvider.parseToken(jwt);
+        timing.endStage(AuthStage.PARSE);
+        if (claims.getSubject() == null || claims.getIssuedAt() == null || claims.getExpiration() == null) {
+            throw new IllegalArgumentException("Token lacks a subject, issue time or expiry");
+        }
+
+        String role = claims.get(JwtTokenProvider.ROLE_CLAIM, String.class);
+        Boolean enabled = claims.get(JwtTokenProvider.ENABLED_CLAIM, Boolean.class);
+        UserDetails userDetails;
+        if (role == null || enabled == null) {
+            userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+            timing.endStage(AuthStage.LOAD_USER);
+        } else {
+            userDetails = User.withUsername(claims.getSubject())
+                    .password("")
+                    .authorities(role)
+                    .disabled(!enabled)
+                    .build();
+        }
+        return new TokenPrincipal(userDetails, claims.getIssuedAt().toInstant(), claims.getExpiration().toInstant());
+    }
+
+    private static AuthOutcome failureOutcome(Exception e) {
+        if (e instanceof JwtException || e instanceof IllegalArgumentException) {
+            return AuthOutcome.INVALID_TOKEN;
+        }
+        if (e instanceof UsernameNotFoundException) {
+            return AuthOutcome.UNKNOWN_USER;
+        }
+        return AuthOutcome.ERROR;
+    }
+
+    private enum AuthStage {
+        PARSE, LOAD_USER, VALIDATE
+    }
+
+    private enum AuthOutcome {
+        AUTHENTICATED, REJECTED, INVALID_TOKEN, UNKNOWN_USER, ERROR, ANONYMOUS
+    }
 }
@@ -0,0 +1,54 @@
+package com.urlshortener.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.urlshortener.config.JwtConfig;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Principals of recently verified tokens, keyed by the token itself, so a client sending the
+ * same token repeatedly has it verified once per TTL. Entries never outlive their token.
+ */
+@Component
+public class JwtPrincipalCache {
+
+    private final Cache<String, TokenPrincipal> cache;
+
+    public JwtPrincipalCache(JwtConfig config) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(config.getPrincipalCacheSize())
+                .expireAfterWrite(config.getPrincipalCacheTtl())
+                .build();
+    }
+
+    /**
+     * Returns the cached principal of {@code token}, or {@code null} if there is none or the
+     * token has expired since.
+     */
+    public TokenPrincipal get(String token) {
+        TokenPrincipal principal = cache.getIfPresent(token);
+        if (principal != null && !principal.expiresAt().isAfter(Instant.now())) {
+            cache.invalidate(token);
+            return null;
+        }
+        return principal;
+    }
+
+    public void put(String token, TokenPrincipal principal) {
+        cache.put(token, principal);
+    }
+
+    /**
+     * Drops every cached principal of {@code username}, so their next request verifies its
+     * token again.
+     */
+    public void invalidateUser(String username) {
+        cache.asMap().values().removeIf(principal -> principal.user().getUsername().equals(username));
+    }
+
+    public record TokenPrincipal(UserDetails user, Instant issuedAt, Instant expiresAt) {
+    }
+}
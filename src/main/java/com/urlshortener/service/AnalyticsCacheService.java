@@ -0,0 +1,22 @@
+package com.urlshortener.service;
+
+import com.urlshortener.dto.response.AnalyticsResponse;
+import com.urlshortener.model.AnalyticsQuery;
+import com.urlshortener.model.AnalyticsSnapshot;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+public interface AnalyticsCacheService {
+    /**
+     * Returns the cached result of {@code query} for {@code shortCode} if it is still current for
+     * a link with {@code totalClicks} clicks, or within the staleness bound; otherwise computes
+     * and caches a new one.
+     */
+    AnalyticsSnapshot get(String shortCode, AnalyticsQuery query, long totalClicks, Supplier<AnalyticsResponse> compute);
+
+    /**
+     * Marks the cached results of {@code shortCodes} out of date after their clicks were stored.
+     */
+    void clicksStored(Collection<String> shortCodes);
+}
@@ -1,7 +1,12 @@
 package com.urlshortener.service;
 
-import com.urlshortener.dto.response.AnalyticsResponse;
+import com.urlshortener.dto.response.TopSourcesResponse;
+import com.urlshortener.model.AnalyticsQuery;
+import com.urlshortener.model.AnalyticsSnapshot;
+import com.urlshortener.model.TrafficSource;
 
 public interface AnalyticsService {
-    AnalyticsResponse getAnalytics(String shortCode, String userId);
+    AnalyticsSnapshot getAnalytics(String shortCode, String userId, AnalyticsQuery query);
+
+    TopSourcesResponse getTopSources(String shortCode, String userId, TrafficSource source, int limit);
 }
@@ -0,0 +1,7 @@
+package com.urlshortener.service;
+
+public interface ClickCounterService {
+    void increment(String shortCode);
+    long getPendingClicks(String shortCode);
+    void flush();
+}
@@ -0,0 +1,15 @@
+package com.urlshortener.service;
+
+import com.urlshortener.model.ExportFormat;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+
+public interface ClickExportService {
+    /**
+     * Checks that {@code userId} owns {@code shortCode} and takes one of the node's export slots.
+     * The returned body streams the link's clicks with {@code clickedAt} in {@code [from, to)},
+     * either bound may be {@code null}, and gives the slot back when done.
+     */
+    StreamingResponseBody exportClicks(String shortCode, String userId, LocalDateTime from, LocalDateTime to, ExportFormat format);
+}
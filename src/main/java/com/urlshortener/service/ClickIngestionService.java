@@ -0,0 +1,7 @@
+package com.urlshortener.service;
+
+import com.urlshortener.model.RawClick;
+
+public interface ClickIngestionService {
+    void enqueue(RawClick click);
+}
@@ -0,0 +1,34 @@
+package com.urlshortener.service;
+
+import com.urlshortener.entity.ClickEvent;
+import com.urlshortener.entity.ClickRollup;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ClickRollupService {
+    /**
+     * Adds freshly stored clicks to their daily rollups. Failures are logged, not thrown.
+     */
+    void record(List<ClickEvent> clicks);
+
+    /**
+     * Returns the rollups of {@code shortCode} for days in {@code [fromDay, toDay)}, oldest
+     * first; either bound may be {@code null}.
+     */
+    List<ClickRollup> getRollups(String shortCode, LocalDate fromDay, LocalDate toDay);
+
+    /**
+     * Returns the moment from which the rollups hold every stored click, or {@code null} once
+     * {@link #backfill} has completed and they hold all of them. Clicks before the returned
+     * moment have to be read from the raw clicks.
+     */
+    LocalDateTime getRolledUpSince();
+
+    /**
+     * Rolls up the clicks stored before rollups were first maintained and returns how many
+     * were added. Can only run once.
+     */
+    long backfill();
+}
@@ -0,0 +1,19 @@
+package com.urlshortener.service;
+
+import com.urlshortener.entity.ClickEvent;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+public interface ClickStreamService {
+    /**
+     * Checks that {@code userId} owns {@code shortCode} and returns an emitter receiving the
+     * link's clicks as this node ingests them.
+     */
+    SseEmitter subscribe(String shortCode, String userId);
+
+    /**
+     * Hands stored clicks to the subscribers of their links. Never blocks on a subscriber.
+     */
+    void publish(List<ClickEvent> clicks);
+}
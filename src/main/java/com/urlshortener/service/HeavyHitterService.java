@@ -0,0 +1,20 @@
+package com.urlshortener.service;
+
+import com.urlshortener.dto.response.TopSourcesResponse;
+import com.urlshortener.entity.ClickEvent;
+import com.urlshortener.model.TrafficSource;
+
+import java.util.List;
+
+public interface HeavyHitterService {
+    /**
+     * Counts the traffic sources of freshly stored clicks, per link and across all links.
+     */
+    void record(List<ClickEvent> clicks);
+
+    /**
+     * Returns the {@code limit} most frequent values of {@code source} for {@code shortCode},
+     * or across all links when {@code shortCode} is {@code null}.
+     */
+    TopSourcesResponse getTop(String shortCode, TrafficSource source, int limit);
+}
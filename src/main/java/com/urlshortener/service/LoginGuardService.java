@@ -0,0 +1,17 @@
+package com.urlshortener.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+public interface LoginGuardService {
+    /**
+     * Runs password work for {@code username} from {@code clientIp} on the bounded hashing
+     * pool, off the request thread. A failed login, signalled by
+     * {@link com.urlshortener.exception.UnauthorizedException}, counts against the username.
+     *
+     * @param operation names the work in metrics, e.g. {@code login}
+     * @throws com.urlshortener.exception.TooManyRequestsException if the client or username is
+     *         throttled or the pool's queue is full
+     */
+    <T> CompletableFuture<T> submit(String operation, String clientIp, String username, Supplier<T> work);
+}
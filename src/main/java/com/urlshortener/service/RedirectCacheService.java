@@ -0,0 +1,11 @@
+package com.urlshortener.service;
+
+import com.urlshortener.model.RedirectTarget;
+
+import java.util.Optional;
+
+public interface RedirectCacheService {
+    Optional<RedirectTarget> getRedirectTarget(String shortCode);
+    void markInactive(String shortCode);
+    void invalidate(String shortCode);
+}
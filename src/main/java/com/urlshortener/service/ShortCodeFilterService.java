@@ -0,0 +1,11 @@
+package com.urlshortener.service;
+
+import com.urlshortener.model.ShortCodeFilterStats;
+
+public interface ShortCodeFilterService {
+    boolean mightExist(String shortCode);
+    void add(String shortCode);
+    void recordDeletion(String shortCode);
+    void rebuild();
+    ShortCodeFilterStats getStats();
+}
@@ -1,5 +1,26 @@
 package com.urlshortener.service;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public interface ShortCodeGeneratorService {
     String generateShortCode();
+
+    /**
+     * Generates {@code count} codes at once, for bulk creation.
+     */
+    default List<String> generateShortCodes(int count) {
+        List<String> codes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            codes.add(generateShortCode());
+        }
+        return codes;
+    }
+
+    /**
+     * Whether generated codes never repeat, so callers can skip checking them against existing links.
+     */
+    default boolean generatesUniqueCodes() {
+        return false;
+    }
 }
@@ -0,0 +1,21 @@
+package com.urlshortener.service;
+
+import com.urlshortener.entity.ClickEvent;
+import com.urlshortener.model.UniqueVisitors;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface UniqueVisitorService {
+    /**
+     * Adds the visitors of freshly stored clicks to their daily sketches. Failures are logged,
+     * not thrown.
+     */
+    void record(List<ClickEvent> clicks);
+
+    /**
+     * Estimates the distinct visitors of {@code shortCode} on days in {@code [fromDay, toDay)};
+     * either bound may be {@code null}.
+     */
+    UniqueVisitors count(String shortCode, LocalDate fromDay, LocalDate toDay);
+}
@@ -0,0 +1,14 @@
+package com.urlshortener.service;
+
+import com.urlshortener.model.UrlImportReport;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+public interface UrlImportService {
+    /**
+     * Imports the links in {@code file}, resuming after the rows recorded in its checkpoint.
+     * Rejected rows are appended to a file next to it, with the reason.
+     */
+    UrlImportReport importFile(Path file) throws IOException;
+}
@@ -2,16 +2,20 @@ package com.urlshortener.service;
 
 import com.urlshortener.dto.request.CreateUrlRequest;
 import com.urlshortener.dto.request.UpdateUrlRequest;
+import com.urlshortener.dto.response.BulkCreateUrlResponse;
+import com.urlshortener.dto.response.UrlPageResponse;
 import com.urlshortener.dto.response.UrlResponse;
+import com.urlshortener.model.UrlListQuery;
 import jakarta.servlet.http.HttpServletRequest;
 
 import java.util.List;
 
 public interface UrlService {
     UrlResponse createShortUrl(CreateUrlRequest request, String userId);
+    BulkCreateUrlResponse createShortUrls(List<CreateUrlRequest> requests, String userId);
     String redirect(String shortCode, HttpServletRequest request);
     UrlResponse getUrlByShortCode(String shortCode, String userId);
-    List<UrlResponse> getUserUrls(String userId);
+    UrlPageResponse getUserUrls(String userId, UrlListQuery query);
     UrlResponse updateUrl(String shortCode, UpdateUrlRequest request, String userId);
     void deleteUrl(String shortCode, String userId);
 }
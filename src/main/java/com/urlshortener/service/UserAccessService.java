@@ -0,0 +1,18 @@
+package com.urlshortener.service;
+
+import java.time.Instant;
+
+public interface UserAccessService {
+    /**
+     * Enables or disables {@code username}. Disabling also revokes every token issued to the
+     * user so far, on this node at once and on the others within
+     * {@code jwt.revocation-sync-interval}.
+     */
+    void setEnabled(String username, boolean enabled);
+
+    /**
+     * Tells whether a token of {@code username} issued at {@code issuedAt} was revoked by
+     * disabling the user. Answered from memory.
+     */
+    boolean isRevoked(String username, Instant issuedAt);
+}
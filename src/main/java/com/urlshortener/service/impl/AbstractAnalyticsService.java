@@ -0,0 +1,140 @@
+package com.urlshortener.service.impl;
+
+import com.urlshortener.config.AnalyticsConfig;
+import com.urlshortener.dto.response.AnalyticsResponse;
+import com.urlshortener.dto.response.TopSourcesResponse;
+import com.urlshortener.entity.ShortUrl;
+import com.urlshortener.exception.BadRequestException;
+import com.urlshortener.exception.ResourceNotFoundException;
+import com.urlshortener.exception.UnauthorizedException;
+import com.urlshortener.model.AnalyticsQuery;
+import com.urlshortener.model.AnalyticsSnapshot;
+import com.urlshortener.model.TrafficSource;
+import com.urlshortener.model.UniqueVisitors;
+import com.urlshortener.repository.ShortUrlRepository;
+import com.urlshortener.service.AnalyticsCacheService;
+import com.urlshortener.service.AnalyticsService;
+import com.urlshortener.service.ClickCounterService;
+import com.urlshortener.service.HeavyHitterService;
+import com.urlshortener.service.UniqueVisitorService;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Ownership check, window validation, result caching, click total, unique visitors and top
+ * traffic sources shared by the analytics engines. Engines only compute the breakdowns.
+ */
+abstract class AbstractAnalyticsService implements AnalyticsService {
+
+        protected final ShortUrlRepository shortUrlRepository;
+        protected final ClickCounterService clickCounterService;
+        protected final UniqueVisitorService uniqueVisitorService;
+        protected final HeavyHitterService heavyHitterService;
+        protected final AnalyticsCacheService analyticsCacheService;
+        protected final AnalyticsConfig analyticsConfig;
+
+        protected AbstractAnalyticsService(
+                        ShortUrlRepository shortUrlRepository,
+                        ClickCounterService clickCounterService,
+                        UniqueVisitorService uniqueVisitorService,
+                        HeavyHitterService heavyHitterService,
+                        AnalyticsCacheService analyticsCacheService,
+                        AnalyticsConfig analyticsConfig
+        ) {
+                this.shortUrlRepository = shortUrlRepository;
+                this.clickCounterService = clickCounterService;
+                this.uniqueVisitorService = uniqueVisitorService;
+                this.heavyHitterService = heavyHitterService;
+                this.analyticsCacheService = analyticsCacheService;
+                this.analyticsConfig = analyticsConfig;
+        }
+
+        @Override
+        public AnalyticsSnapshot getAnalytics(String shortCode, String userId, AnalyticsQuery query) {
+                ShortUrl shortUrl = findOwnedShortUrl(shortCode, userId);
+                validateQuery(shortUrl, query);
+                return analyticsCacheService.get(shortCode, query, getTotalClicks(shortUrl),
+                                () -> computeAnalytics(shortUrl, query));
+        }
+
+        /**
+         * Computes the analytics of {@code shortUrl} over the validated {@code query} window.
+         */
+        protected abstract AnalyticsResponse computeAnalytics(ShortUrl shortUrl, AnalyticsQuery query);
+
+        @Override
+        public TopSourcesResponse getTopSources(String shortCode, String userId, TrafficSource source, int limit) {
+                findOwnedShortUrl(shortCode, userId);
+                if (limit < 1) {
+                        throw new BadRequestException("'limit' must be positive");
+                }
+                return heavyHitterService.getTop(shortCode, source, limit);
+        }
+
+        protected ShortUrl findOwnedShortUrl(String shortCode, String userId) {
+                ShortUrl shortUrl = shortUrlRepository.findByShortCode(shortCode)
+                                .orElseThrow(() -> new ResourceNotFoundException("Short URL not found"));
+
+                if (!shortUrl.getUserId().equals(userId)) {
+                        throw new UnauthorizedException("Not authorized to view analytics for this URL");
+                }
+                return shortUrl;
+        }
+
+        /**
+         * Rejects empty windows and windows with more buckets than {@code app.analytics.max-buckets}.
+         * Open bounds are taken as the link's creation and now.
+         */
+        protected void validateQuery(ShortUrl shortUrl, AnalyticsQuery query) {
+                LocalDateTime from = query.getFrom();
+                LocalDateTime to = query.getTo();
+                if (from != null && to != null && !from.isBefore(to)) {
+                        throw new BadRequestException("'from' must be before 'to'");
+                }
+
+                LocalDateTime start = from != null ? from : shortUrl.getCreatedAt();
+                LocalDateTime end = to != null ? to : LocalDateTime.now();
+                if (start != null && start.isBefore(end)
+                                && query.getGranularity().bucketsBetween(start, end) > analyticsConfig.getMaxBuckets()) {
+                        throw new BadRequestException("Window spans more than " + analyticsConfig.getMaxBuckets()
+                                        + " " + query.getGranularity() + " buckets; narrow it or use a coarser granularity");
+                }
+        }
+
+        protected AnalyticsResponse complete(
+                        AnalyticsResponse.AnalyticsResponseBuilder response,
+                        ShortUrl shortUrl,
+                        AnalyticsQuery query
+        ) {
+                // Visitors are sketched per day, so they cover every day the window touches
+                UniqueVisitors visitors = uniqueVisitorService.count(shortUrl.getShortCode(),
+                                query.getFrom() == null ? null : query.getFrom().toLocalDate(),
+                                query.getTo() == null ? null : ceilingDay(query.getTo()));
+
+                AnalyticsResponse analytics = response
+                                .shortCode(shortUrl.getShortCode())
+                                .uniqueVisitors(visitors.getTotal())
+                                .uniqueVisitorsByDate(visitors.getByDate())
+                                .totalClicks(getTotalClicks(shortUrl))
+                                .from(query.getFrom())
+                                .to(query.getTo())
+                                .granularity(query.getGranularity())
+                                .build();
+                analytics.setClicksInRange(analytics.getClicksByDate().values().stream().mapToLong(Long::longValue).sum());
+                return analytics;
+        }
+
+        /**
+         * Returns the first day starting at or after {@code time}.
+         */
+        protected static LocalDate ceilingDay(LocalDateTime time) {
+                LocalDate day = time.toLocalDate();
+                return time.equals(day.atStartOfDay()) ? day : day.plusDays(1);
+        }
+
+        protected long getTotalClicks(ShortUrl shortUrl) {
+                long storedClicks = shortUrl.getTotalClicks() != null ? shortUrl.getTotalClicks() : 0L;
+                return storedClicks + clickCounterService.getPendingClicks(shortUrl.getShortCode());
+        }
+}
@@ -0,0 +1,152 @@
+package com.urlshortener.service.impl;
+
+import com.urlshortener.config.AnalyticsConfig;
+import com.urlshortener.dto.response.AnalyticsResponse;
+import com.urlshortener.entity.ShortUrl;
+import com.urlshortener.model.AnalyticsQuery;
+import com.urlshortener.model.Granularity;
+import com.urlshortener.repository.ClickStore;
+import com.urlshortener.repository.ShortUrlRepository;
+import com.urlshortener.service.AnalyticsCacheService;
+import com.urlshortener.service.ClickCounterService;
+import com.urlshortener.service.HeavyHitterService;
+import com.urlshortener.service.UniqueVisitorService;
+import com.urlshortener.util.TimeHistogram;
+import org.bson.Document;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.aggregation.FacetOperation;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.facet;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.group;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.project;
+
+/**
+ * Computes every breakdown inside MongoDB with one {@code $facet} pipeline over the link's
+ * clicks in the requested window, unpacked from buckets first when they are stored that way,
+ * so only the grouped counts cross the wire. Sub-day buckets get their own facet; weeks are
+ * folded from the daily facet, which avoids {@code $dateTrunc} and so works on MongoDB before
+ * 5.0.
+ */
+@Service
+@ConditionalOnProperty(name = "app.analytics.engine", havingValue = "aggregation")
+public class AggregationAnalyticsServiceImpl extends AbstractAnalyticsService {
+
+        private static final String[] DIMENSIONS = {
+                        "country", "region", "referrer", "deviceType", "browser", "operatingSystem"};
+
+        // Days are cut in the JVM's zone, matching how clickedAt is converted on write
+        private static final ZoneId ZONE = ZoneId.systemDefault();
+
+        private final MongoTemplate mongoTemplate;
+        private final ClickStore clickStore;
+
+        public AggregationAnalyticsServiceImpl(
+                        ShortUrlRepository shortUrlRepository,
+                        MongoTemplate mongoTemplate,
+                        ClickStore clickStore,
+                        ClickCounterService clickCounterService,
+                        UniqueVisitorService uniqueVisitorService,
+                        HeavyHitterService heavyHitterService,
+                        AnalyticsCacheService analyticsCacheService,
+                        AnalyticsConfig analyticsConfig
+        ) {
+                super(shortUrlRepository, clickCounterService, uniqueVisitorService, heavyHitterService,
+                                analyticsCacheService, analyticsConfig);
+                this.mongoTemplate = mongoTemplate;
+                this.clickStore = clickStore;
+        }
+
+        @Override
+        protected AnalyticsResponse computeAnalytics(ShortUrl shortUrl, AnalyticsQuery query) {
+                String shortCode = shortUrl.getShortCode();
+
+                Document result = mongoTemplate.aggregate(
+                                breakdownPipeline(shortCode, query),
+                                clickStore.collectionName(),
+                                Document.class).getUniqueMappedResult();
+
+                Map<String, Long> clicksByDate = counts(result, "date", new TreeMap<>());
+                Map<String, Long> timeSeries = query.getGranularity().isDayAligned()
+                                ? timeSeries(clicksByDate, query.getGranularity())
+                                : counts(result, "series", new TreeMap<>());
+
+                return complete(AnalyticsResponse.builder()
+                                .clicksByCountry(counts(result, "country", new HashMap<>()))
+                                .clicksByRegion(counts(result, "region", new HashMap<>()))
+                                .clicksByReferrer(counts(result, "referrer", new HashMap<>()))
+                                .clicksByDate(clicksByDate)
+                                .timeSeries(timeSeries)
+                                .clicksByDeviceType(counts(result, "deviceType", new HashMap<>()))
+                                .clicksByBrowser(counts(result, "browser", new HashMap<>()))
+                                .clicksByOperatingSystem(counts(result, "operatingSystem", new HashMap<>())),
+                                shortUrl, query);
+        }
+
+        private Aggregation breakdownPipeline(String shortCode, AnalyticsQuery query) {
+                FacetOperation facets = facet(
+                                project().and(bucketKey("%Y-%m-%d")).as("day"),
+                                group("day").count().as("count"))
+                                .as("date");
+                if (query.getGranularity() == Granularity.MINUTE) {
+                        facets = facets.and(
+                                        project().and(bucketKey("%Y-%m-%dT%H:%M")).as("bucket"),
+                                        group("bucket").count().as("count"))
+                                        .as("series");
+                } else if (query.getGranularity() == Granularity.HOUR) {
+                        facets = facets.and(
+                                        project().and(bucketKey("%Y-%m-%dT%H:00")).as("bucket"),
+                                        group("bucket").count().as("count"))
+                                        .as("series");
+                }
+                for (String dimension : DIMENSIONS) {
+                        facets = facets.and(group(dimension).count().as("count")).as(dimension);
+                }
+
+                List<AggregationOperation> stages = new ArrayList<>(
+                                clickStore.matchClicks(shortCode, query.getFrom(), query.getTo()));
+                // Leave the long userAgent and ipAddress strings behind before grouping
+                stages.add(project(DIMENSIONS).and("clickedAt").as("clickedAt"));
+                stages.add(facets);
+                return Aggregation.newAggregation(stages);
+        }
+
+        private static DateOperators.DateToString bucketKey(String format) {
+                return DateOperators.DateToString.dateOf("clickedAt")
+                                .toString(format)
+                                .withTimezone(DateOperators.Timezone.valueOf(ZONE.getId()));
+        }
+
+        private static Map<String, Long> timeSeries(Map<String, Long> clicksByDate, Granularity granularity) {
+                TimeHistogram series = new TimeHistogram(ZONE, granularity);
+                clicksByDate.forEach((day, count) -> series.add(LocalDate.parse(day).atStartOfDay(), count));
+                return series.toMap();
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Map<String, Long> counts(Document result, String facet, Map<String, Long> target) {
+                if (result == null) {
+                        return target;
+                }
+                for (Document bucket : (List<Document>) result.get(facet, List.class)) {
+                        Object value = bucket.get("_id");
+                        // Like the other engines, ignore missing and empty values
+                        if (value != null && !value.toString().isEmpty()) {
+                                target.put(value.toString(), ((Number) bucket.get("count")).longValue());
+                        }
+                }
+                return target;
+        }
+}
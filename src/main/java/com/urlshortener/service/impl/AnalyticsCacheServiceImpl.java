@@ -0,0 +1,119 @@
+package com.urlshortener.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.urlshortener.config.AnalyticsCacheConfig;
+import com.urlshortener.dto.response.AnalyticsResponse;
+import com.urlshortener.model.AnalyticsQuery;
+import com.urlshortener.model.AnalyticsSnapshot;
+import com.urlshortener.service.AnalyticsCacheService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Caches analytics results per link and window. A result is current while neither the link's
+ * click total nor the count of click batches ingested for it on this node has moved: the total
+ * catches clicks from every node within a counter flush, the batch count catches breakdowns
+ * changing after ingestion. Results are recomputed after {@code max-age} regardless, and may be
+ * served up to {@code max-staleness} after they went out of date.
+ */
+@Service
+public class AnalyticsCacheServiceImpl implements AnalyticsCacheService {
+
+    private final AnalyticsCacheConfig config;
+    private final Cache<String, LinkResults> links;
+
+    private final Counter hitCounter;
+    private final Counter staleCounter;
+    private final Counter missCounter;
+
+    public AnalyticsCacheServiceImpl(AnalyticsCacheConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.links = Caffeine.newBuilder()
+                .maximumSize(config.getMaxLinks())
+                .expireAfterAccess(config.getMaxAge())
+                .build();
+        this.hitCounter = meterRegistry.counter("analytics.cache", "result", "hit");
+        this.staleCounter = meterRegistry.counter("analytics.cache", "result", "stale");
+        this.missCounter = meterRegistry.counter("analytics.cache", "result", "miss");
+    }
+
+    @Override
+    public AnalyticsSnapshot get(String shortCode, AnalyticsQuery query, long totalClicks, Supplier<AnalyticsResponse> compute) {
+        if (!config.isEnabled()) {
+            return snapshot(compute.get(), totalClicks, Instant.now());
+        }
+
+        LinkResults link = links.get(shortCode, code -> new LinkResults(config.getMaxQueriesPerLink()));
+        // Read before computing, so batches stored while computing leave the result out of date
+        long batches = link.batches.get();
+        Instant now = Instant.now();
+
+        CachedResult cached = link.get(query);
+        if (cached != null) {
+            Duration age = Duration.between(cached.snapshot.getComputedAt(), now);
+            if (cached.batches == batches && cached.totalClicks == totalClicks && age.compareTo(config.getMaxAge()) < 0) {
+                hitCounter.increment();
+                return cached.snapshot;
+            }
+            if (age.compareTo(config.getMaxStaleness()) < 0) {
+                staleCounter.increment();
+                return cached.snapshot;
+            }
+        }
+
+        missCounter.increment();
+        AnalyticsSnapshot snapshot = snapshot(compute.get(), totalClicks, now);
+        link.put(query, new CachedResult(snapshot, batches, totalClicks));
+        return snapshot;
+    }
+
+    @Override
+    public void clicksStored(Collection<String> shortCodes) {
+        for (String shortCode : shortCodes) {
+            LinkResults link = links.getIfPresent(shortCode);
+            if (link != null) {
+                link.batches.incrementAndGet();
+            }
+        }
+    }
+
+    private static AnalyticsSnapshot snapshot(AnalyticsResponse response, long totalClicks, Instant computedAt) {
+        String etag = "\"" + Long.toHexString(totalClicks) + "-" + Long.toHexString(computedAt.toEpochMilli()) + "\"";
+        return new AnalyticsSnapshot(response, etag, computedAt);
+    }
+
+    private record CachedResult(AnalyticsSnapshot snapshot, long batches, long totalClicks) {
+    }
+
+    private static final class LinkResults {
+        private final AtomicLong batches = new AtomicLong();
+        private final Map<AnalyticsQuery, CachedResult> results;
+
+        private LinkResults(int maxQueries) {
+            this.results = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<AnalyticsQuery, CachedResult> eldest) {
+                    return size() > maxQueries;
+                }
+            };
+        }
+
+        private synchronized CachedResult get(AnalyticsQuery query) {
+            return results.get(query);
+        }
+
+        private synchronized void put(AnalyticsQuery query, CachedResult result) {
+            results.put(query, result);
+        }
+    }
+}
@@ -1,79 +1,50 @@
 package com.urlshortener.service.impl;
 
+import com.urlshortener.config.AnalyticsConfig;
 import com.urlshortener.dto.response.AnalyticsResponse;
-import com.urlshortener.entity.ClickEvent;
 import com.urlshortener.entity.ShortUrl;
-import com.urlshortener.exception.ResourceNotFoundException;
-import com.urlshortener.exception.UnauthorizedException;
-import com.urlshortener.repository.ClickEventRepository;
+import com.urlshortener.model.AnalyticsQuery;
+import com.urlshortener.repository.ClickStore;
 import com.urlshortener.repository.ShortUrlRepository;
-import com.urlshortener.service.AnalyticsService;
-import lombok.RequiredArgsConstructor;
+import com.urlshortener.service.AnalyticsCacheService;
+import com.urlshortener.service.ClickCounterService;
+import com.urlshortener.service.HeavyHitterService;
+import com.urlshortener.service.UniqueVisitorService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
-import java.time.format.DateTimeFormatter;
-import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
-
+/**
+ * Computes every breakdown in the application from the link's raw clicks in the requested
+ * window, in a single pass over a cursor that fetches only the fields used. Memory
+ * is bounded by the number of distinct values per dimension, however many clicks the link has.
+ */
 @Service
-@RequiredArgsConstructor
-public class AnalyticsServiceImpl implements AnalyticsService {
-
-        private final ShortUrlRepository shortUrlRepository;
-        private final ClickEventRepository clickEventRepository;
+@ConditionalOnProperty(name = "app.analytics.engine", havingValue = "raw")
+public class AnalyticsServiceImpl extends AbstractAnalyticsService {
+
+        private final ClickStore clickStore;
+
+        public AnalyticsServiceImpl(
+                        ShortUrlRepository shortUrlRepository,
+                        ClickStore clickStore,
+                        ClickCounterService clickCounterService,
+                        UniqueVisitorService uniqueVisitorService,
+                        HeavyHitterService heavyHitterService,
+                        AnalyticsCacheService analyticsCacheService,
+                        AnalyticsConfig analyticsConfig
+        ) {
+                super(shortUrlRepository, clickCounterService, uniqueVisitorService, heavyHitterService,
+                                analyticsCacheService, analyticsConfig);
+                this.clickStore = clickStore;
+        }
 
         @Override
-        public AnalyticsResponse getAnalytics(String shortCode, String userId) {
-                ShortUrl shortUrl = shortUrlRepository.findByShortCode(shortCode)
-                                .orElseThrow(() -> new ResourceNotFoundException("Short URL not found"));
-
-                if (!shortUrl.getUserId().equals(userId)) {
-                        throw new UnauthorizedException("Not authorized to view analytics for this URL");
-                }
-
-                List<ClickEvent> clicks = clickEventRepository.findByShortCode(shortCode);
-
-                Map<String, Long> clicksByCountry = clicks.stream()
-                                .filter(click -> click.getCountry() != null)
-                                .collect(Collectors.groupingBy(ClickEvent::getCountry, Collectors.counting()));
-
-                Map<String, Long> clicksByRegion = clicks.stream()
-                                .filter(click -> click.getRegion() != null)
-                                .collect(Collectors.groupingBy(ClickEvent::getRegion, Collectors.counting()));
-
-                Map<String, Long> clicksByReferrer = clicks.stream()
-                                .filter(click -> click.getReferrer() != null)
-                                .collect(Collectors.groupingBy(ClickEvent::getReferrer, Collectors.counting()));
-
-                Map<String, Long> clicksByDate = clicks.stream()
-                                .collect(Collectors.groupingBy(
-                                                click -> click.getClickedAt().toLocalDate()
-                                                                .format(DateTimeFormatter.ISO_DATE),
-                                                Collectors.counting()));
-
-                Map<String, Long> clicksByDeviceType = clicks.stream()
-                                .filter(click -> click.getDeviceType() != null)
-                                .collect(Collectors.groupingBy(ClickEvent::getDeviceType, Collectors.counting()));
-
-                Map<String, Long> clicksByBrowser = clicks.stream()
-                                .filter(click -> click.getBrowser() != null)
-                                .collect(Collectors.groupingBy(ClickEvent::getBrowser, Collectors.counting()));
+        protected AnalyticsResponse computeAnalytics(ShortUrl shortUrl, AnalyticsQuery query) {
+                String shortCode = shortUrl.getShortCode();
 
-                Map<String, Long> clicksByOperatingSystem = clicks.stream()
-                                .filter(click -> click.getOperatingSystem() != null)
-                                .collect(Collectors.groupingBy(ClickEvent::getOperatingSystem, Collectors.counting()));
+                ClickBreakdown breakdown = new ClickBreakdown(query.getGranularity());
+                breakdown.scan(clickStore, shortCode, query.getFrom(), query.getTo());
 
-                return AnalyticsResponse.builder()
-                                .shortCode(shortCode)
-                                .totalClicks(shortUrl.getTotalClicks())
-                                .clicksByCountry(clicksByCountry)
-                                .clicksByRegion(clicksByRegion)
-                                .clicksByReferrer(clicksByReferrer)
-                                .clicksByDate(clicksByDate)
-                                .clicksByDeviceType(clicksByDeviceType)
-                                .clicksByBrowser(clicksByBrowser)
-                                .clicksByOperatingSystem(clicksByOperatingSystem)
-                                .build();
+                return complete(breakdown.toResponse(), shortUrl, query);
         }
 }
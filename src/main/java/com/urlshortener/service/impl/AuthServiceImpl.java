@@ -47,7 +47,7 @@ public class AuthServiceImpl implements AuthService {
 
         userRepository.save(user);
 
-        String token = jwtTokenProvider.generateToken(user.getUsername());
+        String token = jwtTokenProvider.generateToken(user);
 
         return AuthResponse.builder()
                 .token(token)
@@ -67,11 +67,11 @@ public class AuthServiceImpl implements AuthService {
                     )
             );
 
-            String token = jwtTokenProvider.generateToken(authentication.getName());
-
-            User user = userRepository.findByUsername(request.getUsername())
+            User user = userRepository.findByUsername(authentication.getName())
                     .orElseThrow(() -> new UnauthorizedException("Invalid credentials"));
 
+            String token = jwtTokenProvider.generateToken(user);
+
             return AuthResponse.builder()
                     .token(token)
                     .type("Bearer")
@@ -0,0 +1,124 @@
+package com.urlshortener.service.impl;
+
+import com.urlshortener.config.ShortCodeConfig;
+import com.urlshortener.entity.SequenceCounter;
+import com.urlshortener.service.ShortCodeGeneratorService;
+import com.urlshortener.util.ShortCodeCodec;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Generates short codes from IDs leased in contiguous blocks from a counter document.
+ *
+ * <p>Each block costs one atomic {@code findAndModify}; IDs inside a block are handed out with a
+ * lock-free increment. Since every node leases disjoint blocks, codes never collide and no
+ * existence check is needed. IDs left unused in a block when the process stops are skipped.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "app.short-code.generator", havingValue = "block")
+public class BlockShortCodeGeneratorServiceImpl implements ShortCodeGeneratorService {
+
+    static final String COUNTER_ID = "short_code";
+    private static final int SHORT_CODE_LENGTH = 7;
+
+    private final MongoTemplate mongoTemplate;
+    private final ShortCodeCodec codec;
+    private final int blockSize;
+    private final ReentrantLock leaseLock = new ReentrantLock();
+    private volatile Block block;
+
+    public BlockShortCodeGeneratorServiceImpl(MongoTemplate mongoTemplate, ShortCodeConfig config) {
+        this.mongoTemplate = mongoTemplate;
+        this.codec = new ShortCodeCodec(SHORT_CODE_LENGTH, config.isScramble(), config.getScrambleKey());
+        this.blockSize = config.getBlockSize();
+    }
+
+    @Override
+    public String generateShortCode() {
+        while (true) {
+            Block current = block;
+            if (current != null) {
+                long id = current.next.getAndIncrement();
+                if (id < current.end) {
+                    return codec.encode(id);
+                }
+            }
+            leaseBlock(current);
+        }
+    }
+
+    /**
+     * Batches of at least a block lease a range of their own in one {@code findAndModify}, rather
+     * than draining several shared blocks.
+     */
+    @Override
+    public List<String> generateShortCodes(int count) {
+        if (count < blockSize) {
+            return ShortCodeGeneratorService.super.generateShortCodes(count);
+        }
+        long end = lease(count);
+        List<String> codes = new ArrayList<>(count);
+        for (long id = end - count; id < end; id++) {
+            codes.add(codec.encode(id));
+        }
+        return codes;
+    }
+
+    @Override
+    public boolean generatesUniqueCodes() {
+        return true;
+    }
+
+    private void leaseBlock(Block exhausted) {
+        leaseLock.lock();
+        try {
+            if (block != exhausted) {
+                return;
+            }
+
+            long end = lease(blockSize);
+            block = new Block(end - blockSize, end);
+            log.debug("Leased short code IDs [{}, {})", end - blockSize, end);
+        } finally {
+            leaseLock.unlock();
+        }
+    }
+
+    /**
+     * Reserves {@code count} IDs and returns the end of the reserved range.
+     */
+    private long lease(int count) {
+        SequenceCounter counter = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(COUNTER_ID)),
+                new Update().inc("seq", count),
+                FindAndModifyOptions.options().returnNew(true).upsert(true),
+                SequenceCounter.class);
+        long end = counter.getSeq();
+        if (end > codec.capacity()) {
+            throw new IllegalStateException("Short code space exhausted");
+        }
+        return end;
+    }
+
+    private static final class Block {
+        private final AtomicLong next;
+        private final long end;
+
+        private Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
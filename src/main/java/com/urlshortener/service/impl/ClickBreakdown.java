@@ -0,0 +1,97 @@
+package com.urlshortener.service.impl;
+
+import com.urlshortener.dto.response.AnalyticsResponse;
+import com.urlshortener.entity.ClickRollup;
+import com.urlshortener.model.Granularity;
+import com.urlshortener.repository.ClickStore;
+import com.urlshortener.util.DictionaryCounter;
+import com.urlshortener.util.TimeHistogram;
+import org.bson.Document;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Breakdowns of a link's clicks, accumulated from raw clicks and daily rollups. Raw clicks are
+ * read in one pass over a cursor that fetches only the fields used and, given a window, walks
+ * only that slice of the click store's index. Not thread-safe.
+ */
+final class ClickBreakdown {
+
+        // clickedAt is converted from the JVM's zone on write, so buckets are cut in it too
+        private static final ZoneId ZONE = ZoneId.systemDefault();
+
+        private final DictionaryCounter clicksByCountry = new DictionaryCounter();
+        private final DictionaryCounter clicksByRegion = new DictionaryCounter();
+        private final DictionaryCounter clicksByReferrer = new DictionaryCounter();
+        private final DictionaryCounter clicksByDeviceType = new DictionaryCounter();
+        private final DictionaryCounter clicksByBrowser = new DictionaryCounter();
+        private final DictionaryCounter clicksByOperatingSystem = new DictionaryCounter();
+        private final TimeHistogram clicksByDate = new TimeHistogram(ZONE, Granularity.DAY);
+        private final TimeHistogram timeSeries;
+
+        ClickBreakdown(Granularity granularity) {
+                this.timeSeries = new TimeHistogram(ZONE, granularity);
+        }
+
+        /**
+         * Adds every click of {@code shortCode} in {@code [from, to)}.
+         */
+        void scan(ClickStore clickStore, String shortCode, LocalDateTime from, LocalDateTime to) {
+                try (Stream<Document> clicks = clickStore.stream(shortCode, from, to,
+                                "country", "region", "referrer", "deviceType", "browser", "operatingSystem")) {
+                        clicks.forEach(this::add);
+                }
+        }
+
+        void add(Document click) {
+                clicksByCountry.add(click.getString("country"));
+                clicksByRegion.add(click.getString("region"));
+                clicksByReferrer.add(click.getString("referrer"));
+                clicksByDeviceType.add(click.getString("deviceType"));
+                clicksByBrowser.add(click.getString("browser"));
+                clicksByOperatingSystem.add(click.getString("operatingSystem"));
+                Date clickedAt = click.getDate("clickedAt");
+                if (clickedAt != null) {
+                        clicksByDate.add(clickedAt.getTime());
+                        timeSeries.add(clickedAt.getTime());
+                }
+        }
+
+        /**
+         * Adds a whole day's rollup. Only valid for day-aligned granularities.
+         */
+        void add(ClickRollup rollup) {
+                if (rollup.getTotal() > 0) {
+                        LocalDateTime day = LocalDate.parse(rollup.getDay()).atStartOfDay();
+                        clicksByDate.add(day, rollup.getTotal());
+                        timeSeries.add(day, rollup.getTotal());
+                }
+                addAll(clicksByCountry, rollup.getCountry());
+                addAll(clicksByRegion, rollup.getRegion());
+                addAll(clicksByReferrer, rollup.getReferrer());
+                addAll(clicksByDeviceType, rollup.getDeviceType());
+                addAll(clicksByBrowser, rollup.getBrowser());
+                addAll(clicksByOperatingSystem, rollup.getOperatingSystem());
+        }
+
+        AnalyticsResponse.AnalyticsResponseBuilder toResponse() {
+                return AnalyticsResponse.builder()
+                                .clicksByCountry(clicksByCountry.toMap())
+                                .clicksByRegion(clicksByRegion.toMap())
+                                .clicksByReferrer(clicksByReferrer.toMap())
+                                .clicksByDate(clicksByDate.toMap())
+                                .clicksByDeviceType(clicksByDeviceType.toMap())
+                                .clicksByBrowser(clicksByBrowser.toMap())
+                                .clicksByOperatingSystem(clicksByOperatingSystem.toMap())
+                                .timeSeries(timeSeries.toMap());
+        }
+
+        private static void addAll(DictionaryCounter target, Map<String, Long> counts) {
+                counts.forEach(target::add);
+        }
+}
@@ -0,0 +1,150 @@
+package com.urlshortener.service.impl;
+
+import com.urlshortener.config.ClickCounterConfig;
+import com.urlshortener.repository.ShortUrlRepository;
+import com.urlshortener.service.ClickCounterService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Counts redirects per short code in memory and periodically writes the deltas to
+ * {@code short_urls.totalClicks} as one bulk of {@code $inc} updates.
+ *
+ * <p>Counters are never reset: each one remembers how much of its running total has already
+ * been flushed, so increments racing with a flush are simply picked up by the next one.
+ * Idle counters are unmapped and then drained once more on the following flush before being
+ * dropped, which catches increments from threads that looked the counter up just before it
+ * was unmapped.
+ */
+@Slf4j
+@Service
+public class ClickCounterServiceImpl implements ClickCounterService {
+
+    private final ShortUrlRepository shortUrlRepository;
+    private final ClickCounterConfig config;
+    private final ConcurrentHashMap<String, ClickCounter> counters = new ConcurrentHashMap<>();
+    private final List<ClickCounter> retired = new ArrayList<>();
+    // Not synchronized: a virtual thread blocked in the bulk write must not pin its carrier
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final Counter flushedClicksCounter;
+    private final Counter failedFlushCounter;
+    private final Timer flushTimer;
+
+    public ClickCounterServiceImpl(
+            ShortUrlRepository shortUrlRepository,
+            ClickCounterConfig config,
+            MeterRegistry meterRegistry
+    ) {
+        this.shortUrlRepository = shortUrlRepository;
+        this.config = config;
+        this.flushedClicksCounter = meterRegistry.counter("clicks.counter.flushed");
+        this.failedFlushCounter = meterRegistry.counter("clicks.counter.flush.failures");
+        this.flushTimer = meterRegistry.timer("clicks.counter.flush");
+        meterRegistry.gaugeMapSize("clicks.counter.tracked", List.of(), counters);
+    }
+
+    @Override
+    public void increment(String shortCode) {
+        counters.computeIfAbsent(shortCode, ClickCounter::new).adder.increment();
+    }
+
+    @Override
+    public long getPendingClicks(String shortCode) {
+        ClickCounter counter = counters.get(shortCode);
+        return counter != null ? counter.pending() : 0L;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.click-counter.flush-interval:1s}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushLocked();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushLocked() {
+        Map<String, Long> deltas = new HashMap<>();
+        Map<ClickCounter, Long> drained = new HashMap<>();
+
+        for (ClickCounter counter : retired) {
+            collect(counter, deltas, drained);
+        }
+
+        Iterator<ClickCounter> iterator = counters.values().iterator();
+        while (iterator.hasNext()) {
+            ClickCounter counter = iterator.next();
+            if (!collect(counter, deltas, drained)
+                    && ++counter.idleFlushes >= config.getIdleFlushesBeforeEviction()
+                    && counters.remove(counter.shortCode, counter)) {
+                retired.add(counter);
+            }
+        }
+
+        if (deltas.isEmpty()) {
+            retired.removeIf(counter -> counter.pending() == 0);
+            return;
+        }
+
+        try {
+            flushTimer.record(() -> shortUrlRepository.incrementTotalClicks(deltas));
+        } catch (Exception e) {
+            log.error("Failed to flush click counts for {} short codes", deltas.size(), e);
+            failedFlushCounter.increment();
+            return;
+        }
+
+        drained.forEach((counter, delta) -> counter.flushed += delta);
+        retired.removeIf(counter -> counter.pending() == 0);
+        flushedClicksCounter.increment(deltas.values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    @PreDestroy
+    void drain() {
+        flush();
+    }
+
+    private boolean collect(ClickCounter counter, Map<String, Long> deltas, Map<ClickCounter, Long> drained) {
+        long delta = counter.pending();
+        if (delta == 0) {
+            return false;
+        }
+        counter.idleFlushes = 0;
+        deltas.merge(counter.shortCode, delta, Long::sum);
+        drained.put(counter, delta);
+        return true;
+    }
+
+    private static final class ClickCounter {
+        private final String shortCode;
+        private final LongAdder adder = new LongAdder();
+        /** Portion of {@link #adder} already written; only touched under the flush lock. */
+        private volatile long flushed;
+        private int idleFlushes;
+
+        private ClickCounter(String shortCode) {
+            this.shortCode = shortCode;
+        }
+
+        private long pending() {
+            return adder.sum() - flushed;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.urlshortener.service.impl;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.urlshortener.config.ClickExportConfig;
+import com.urlshortener.entity.ShortUrl;
+import com.urlshortener.exception.BadRequestException;
+import com.urlshortener.exception.ResourceNotFoundException;
+import com.urlshortener.exception.TooManyRequestsException;
+import com.urlshortener.exception.UnauthorizedException;
+import com.urlshortener.model.ExportFormat;
+import com.urlshortener.repository.ClickStore;
+import com.urlshortener.repository.ShortUrlRepository;
+import com.urlshortener.service.ClickExportService;
+import com.urlshortener.util.CsvWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.bson.Document;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Streams raw clicks from a click store cursor into the response, one row at a time. Memory per
+ * export is the cursor's current batch plus the write buffer, whatever the number of clicks.
+ * Writes block while the client is not reading, which in turn holds back the cursor.
+ *
+ * <p>Bodies run on the MVC async executor rather than a request thread, and a semaphore caps how
+ * many run at once. The permit is taken and released inside the body, so a body that never runs
+ * (rejected by the executor, timed out or failed before dispatch) cannot leak it. Requests
+ * arriving with no permit free get 429 before any response header is committed; the few that
+ * race past that check wait for a permit in the body instead.
+ */
+@Service
+public class ClickExportServiceImpl implements ClickExportService {
+
+    static final String[] FIELDS = {
+            "clickedAt", "ipAddress", "country", "region", "city", "referrer", "userAgent",
+            "deviceType", "browser", "operatingSystem", "utmSource", "utmMedium", "utmCampaign"
+    };
+
+    private static final JsonFactory JSON = new JsonFactory()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+
+    // clickedAt is stored from the JVM's zone; exported with its offset so it reads unambiguously
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private final ShortUrlRepository shortUrlRepository;
+    private final ClickStore clickStore;
+    private final ClickExportConfig config;
+    private final Semaphore slots;
+
+    private final Counter rowCounter;
+    private final Counter rejectedCounter;
+    private final Timer exportTimer;
+
+    public ClickExportServiceImpl(
+            ShortUrlRepository shortUrlRepository,
+            ClickStore clickStore,
+            ClickExportConfig config,
+            MeterRegistry meterRegistry
+    ) {
+        this.shortUrlRepository = shortUrlRepository;
+        this.clickStore = clickStore;
+        this.config = config;
+        this.slots = new Semaphore(config.getMaxConcurrent());
+        this.rowCounter = meterRegistry.counter("clicks.export.rows");
+        this.rejectedCounter = meterRegistry.counter("clicks.export.rejected");
+        this.exportTimer = meterRegistry.timer("clicks.export");
+        meterRegistry.gauge("clicks.export.active", slots, s -> config.getMaxConcurrent() - s.availablePermits());
+    }
+
+    @Override
+    public StreamingResponseBody exportClicks(String shortCode, String userId, LocalDateTime from, LocalDateTime to, ExportFormat format) {
+        ShortUrl shortUrl = shortUrlRepository.findByShortCode(shortCode)
+                .orElseThrow(() -> new ResourceNotFoundException("Short URL not found"));
+        if (!shortUrl.getUserId().equals(userId)) {
+            throw new UnauthorizedException("Not authorized to export clicks for this URL");
+        }
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new BadRequestException("'from' must be before 'to'");
+        }
+        if (slots.availablePermits() == 0) {
+            rejectedCounter.increment();
+            throw new TooManyRequestsException("Too many exports in progress, retry later");
+        }
+
+        return out -> {
+            try {
+                slots.acquire();
+            } catch (InterruptedException e) {
+                // Timed out waiting; the async request is already being completed
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted waiting for an export slot");
+            }
+            long start = System.nanoTime();
+            try (Stream<Document> clicks = clickStore.stream(shortCode, from, to, FIELDS)) {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), config.getBufferSize());
+                if (format == ExportFormat.CSV) {
+                    writeCsv(clicks.iterator(), writer);
+                } else {
+                    writeNdjson(clicks.iterator(), writer);
+                }
+                writer.flush();
+            } finally {
+                slots.release();
+                exportTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        };
+    }
+
+    private void writeNdjson(Iterator<Document> clicks, Writer writer) throws IOException {
+        JsonGenerator json = JSON.createGenerator(writer);
+        json.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+        boolean any = false;
+        while (clicks.hasNext()) {
+            Document click = clicks.next();
+            json.writeStartObject();
+            for (String field : FIELDS) {
+                String value = value(click, field);
+                if (value != null) {
+                    json.writeStringField(field, value);
+                }
+            }
+            json.writeEndObject();
+            rowCounter.increment();
+            any = true;
+        }
+        if (any) {
+            json.writeRaw('\n');
+        }
+        json.flush();
+    }
+
+    private void writeCsv(Iterator<Document> clicks, Writer writer) throws IOException {
+        // Referrers, user agents and UTM tags come from visitors
+        CsvWriter csv = new CsvWriter(writer, true);
+        csv.writeRow(FIELDS);
+        String[] row = new String[FIELDS.length];
+        while (clicks.hasNext()) {
+            Document click = clicks.next();
+            for (int i = 0; i < FIELDS.length; i++) {
+                row[i] = value(click, FIELDS[i]);
+            }
+            csv.writeRow(row);
+            rowCounter.increment();
+        }
+    }
+
+    private static String value(Document click, String field) {
+        Object value = click.get(field);
+        if (value instanceof Date date) {
+            return DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(date.toInstant().atZone(ZONE));
+        }
+        return value == null ? null : value.toString();
+    }
+}
@@ -0,0 +1,259 @@
+package com.urlshortener.service.impl;
+
+import com.urlshortener.config.ClickIngestionConfig;
+import com.urlshortener.entity.ClickEvent;
+import com.urlshortener.model.RawClick;
+import com.urlshortener.repository.ClickStore;
+import com.urlshortener.service.AnalyticsCacheService;
+import com.urlshortener.service.ClickIngestionService;
+import com.urlshortener.service.ClickRollupService;
+import com.urlshortener.service.ClickStreamService;
+import com.urlshortener.service.HeavyHitterService;
+import com.urlshortener.service.UniqueVisitorService;
+import com.urlshortener.service.UserAgentService;
+import com.urlshortener.util.GeoLocationUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Buffers raw clicks from the redirect path in a bounded queue and lets background workers
+ * enrich them, write them to the click store in bulk and add them to the daily
+ * click rollups, visitor sketches and traffic source summaries, then expire the cached analytics
+ * of the links clicked and pass the clicks on to live subscribers.
+ */
+@Slf4j
+@Service
+public class ClickIngestionServiceImpl implements ClickIngestionService {
+
+    private final ClickStore clickStore;
+    private final GeoLocationUtil geoLocationUtil;
+    private final UserAgentService userAgentService;
+    private final ClickRollupService clickRollupService;
+    private final UniqueVisitorService uniqueVisitorService;
+    private final HeavyHitterService heavyHitterService;
+    private final AnalyticsCacheService analyticsCacheService;
+    private final ClickStreamService clickStreamService;
+    private final ClickIngestionConfig config;
+    private final BlockingQueue<RawClick> queue;
+    private final MeterRegistry meterRegistry;
+
+    private final Counter enqueuedCounter;
+    private final Counter droppedCounter;
+    private final Counter writtenCounter;
+    private final Counter failedCounter;
+    private final Counter workerErrorCounter;
+    private final Timer batchWriteTimer;
+    private final Timer geoTimer;
+    private final Timer userAgentTimer;
+
+    private ExecutorService workers;
+    private volatile boolean running;
+
+    public ClickIngestionServiceImpl(
+            ClickStore clickStore,
+            GeoLocationUtil geoLocationUtil,
+            UserAgentService userAgentService,
+            ClickRollupService clickRollupService,
+            UniqueVisitorService uniqueVisitorService,
+            HeavyHitterService heavyHitterService,
+            AnalyticsCacheService analyticsCacheService,
+            ClickStreamService clickStreamService,
+            ClickIngestionConfig config,
+            MeterRegistry meterRegistry
+    ) {
+        this.clickStore = clickStore;
+        this.geoLocationUtil = geoLocationUtil;
+        this.userAgentService = userAgentService;
+        this.clickRollupService = clickRollupService;
+        this.uniqueVisitorService = uniqueVisitorService;
+        this.heavyHitterService = heavyHitterService;
+        this.analyticsCacheService = analyticsCacheService;
+        this.clickStreamService = clickStreamService;
+        this.config = config;
+        this.queue = new ArrayBlockingQueue<>(config.getQueueCapacity());
+        this.meterRegistry = meterRegistry;
+
+        this.enqueuedCounter = meterRegistry.counter("clicks.ingest.enqueued");
+        this.droppedCounter = meterRegistry.counter("clicks.ingest.dropped",
+                "policy", config.getOverflowPolicy().name().toLowerCase());
+        this.writtenCounter = meterRegistry.counter("clicks.ingest.written");
+        this.failedCounter = meterRegistry.counter("clicks.ingest.failed");
+        this.workerErrorCounter = meterRegistry.counter("clicks.ingest.worker.errors");
+        this.batchWriteTimer = meterRegistry.timer("clicks.ingest.batch.write");
+        this.geoTimer = meterRegistry.timer("clicks.ingest.enrich", "stage", "geo");
+        this.userAgentTimer = meterRegistry.timer("clicks.ingest.enrich", "stage", "user_agent");
+        meterRegistry.gauge("clicks.ingest.queue.size", queue, BlockingQueue::size);
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        // Stays on platform threads even in virtual-thread mode: the workers are few and
+        // long-lived, and a user agent missing from the cache is parsed under yauaa's monitor
+        workers = Executors.newFixedThreadPool(config.getWorkers(), new CustomizableThreadFactory("click-ingest-"));
+        for (int i = 0; i < config.getWorkers(); i++) {
+            workers.execute(this::runWorker);
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        workers.shutdown();
+        if (!workers.awaitTermination(config.getShutdownTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+            log.warn("Click ingestion did not drain within {}, {} clicks lost",
+                    config.getShutdownTimeout(), queue.size());
+            workers.shutdownNow();
+        }
+    }
+
+    @Override
+    public void enqueue(RawClick click) {
+        enqueuedCounter.increment();
+        if (queue.offer(click)) {
+            return;
+        }
+
+        switch (config.getOverflowPolicy()) {
+            case DROP_NEWEST -> droppedCounter.increment();
+            case DROP_OLDEST -> {
+                while (!queue.offer(click)) {
+                    if (queue.poll() != null) {
+                        droppedCounter.increment();
+                    }
+                }
+            }
+            case CALLER_RUNS -> writeBatch(List.of(click));
+        }
+    }
+
+    private void runWorker() {
+        int batchSize = config.getBatchSize();
+        long flushIntervalNanos = config.getFlushInterval().toNanos();
+        List<RawClick> batch = new ArrayList<>(batchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                RawClick first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                queue.drainTo(batch, batchSize - batch.size());
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    RawClick next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                queue.drainTo(batch, batchSize - batch.size());
+                writeBatch(batch);
+                return;
+            }
+
+            try {
+                writeBatch(batch);
+            } catch (RuntimeException e) {
+                // A worker that died here would silently shrink the pool for good
+                log.error("Click ingestion worker failed on a batch of {} clicks", batch.size(), e);
+                workerErrorCounter.increment();
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<RawClick> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        List<ClickEvent> events = new ArrayList<>(batch.size());
+        try {
+            for (RawClick click : batch) {
+                events.add(enrich(click));
+            }
+
+            batchWriteTimer.record(() -> clickStore.insert(events));
+            writtenCounter.increment(events.size());
+        } catch (Exception e) {
+            log.error("Failed to write {} click events", batch.size(), e);
+            failedCounter.increment(batch.size());
+            return;
+        }
+
+        // Only stored clicks are rolled up, so rollups never count a click the raw data lacks.
+        // The clicks are stored by now, so a failing summary must not keep the others from them.
+        afterInsert("rollups", events, () -> clickRollupService.record(events));
+        afterInsert("visitors", events, () -> uniqueVisitorService.record(events));
+        afterInsert("heavy_hitters", events, () -> heavyHitterService.record(events));
+        // After every summary is written, so a recomputed result includes this batch
+        afterInsert("analytics_cache", events, () -> {
+            Set<String> shortCodes = new HashSet<>();
+            for (ClickEvent event : events) {
+                shortCodes.add(event.getShortCode());
+            }
+            analyticsCacheService.clicksStored(shortCodes);
+        });
+        afterInsert("stream", events, () -> clickStreamService.publish(events));
+    }
+
+    private void afterInsert(String stage, List<ClickEvent> events, Runnable step) {
+        try {
+            step.run();
+        } catch (RuntimeException e) {
+            log.error("Failed to pass {} stored click events to {}", events.size(), stage, e);
+            meterRegistry.counter("clicks.ingest.after_insert.failed", "stage", stage).increment();
+        }
+    }
+
+    private ClickEvent enrich(RawClick click) {
+        long start = System.nanoTime();
+        Map<String, String> geoData = geoLocationUtil.getGeoLocation(click.getIpAddress());
+        long geoDone = System.nanoTime();
+        Map<String, String> userAgentData = userAgentService.parseUserAgent(click.getUserAgent());
+        geoTimer.record(geoDone - start, TimeUnit.NANOSECONDS);
+        userAgentTimer.record(System.nanoTime() - geoDone, TimeUnit.NANOSECONDS);
+
+        return ClickEvent.builder()
+                .shortCode(click.getShortCode())
+                .ipAddress(click.getIpAddress())
+                .country(geoData.get("country"))
+                .region(geoData.get("region"))
+                .city(geoData.get("city"))
+                .referrer(click.getReferrer())
+                .userAgent(click.getUserAgent())
+                .deviceType(userAgentData.get("deviceType"))
+                .browser(userAgentData.get("browser"))
+                .operatingSystem(userAgentData.get("operatingSystem"))
+                .utmSource(click.getUtmSource())
+                .utmMedium(click.getUtmMedium())
+                .utmCampaign(click.getUtmCampaign())
+                .clickedAt(click.getClickedAt())
+                .build();
+    }
+}
@@ -0,0 +1,182 @@
+package com.urlshortener.service.impl;
+
+import com.urlshortener.entity.ClickEvent;
+import com.urlshortener.entity.ClickRollup;
+import com.urlshortener.entity.SequenceCounter;
+import com.urlshortener.repository.ClickRollupRepository;
+import com.urlshortener.service.ClickRollupService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Maintains per-short-code, per-day click rollups. Each ingested batch of clicks becomes one
+ * bulk of {@code $inc} upserts, one per short code and day present in the batch.
+ *
+ * <p>The first node to write rollups records that moment in {@code counters}; {@link #backfill}
+ * rolls up the clicks stored before it, so history from before rollups existed is counted
+ * exactly once. Until the backfill has completed, {@link #getRolledUpSince} tells readers to
+ * take the clicks before that moment from the raw clicks instead.
+ */
+@Slf4j
+@Service
+public class ClickRollupServiceImpl implements ClickRollupService {
+
+    static final String SINCE_COUNTER_ID = "click_rollups_since";
+    static final String BACKFILL_COUNTER_ID = "click_rollups_backfill";
+    static final String BACKFILLED_COUNTER_ID = "click_rollups_backfilled";
+    private static final int BACKFILL_FLUSH_SIZE = 10_000;
+
+    private final ClickRollupRepository clickRollupRepository;
+    private final MongoTemplate mongoTemplate;
+    private volatile boolean sinceRecorded;
+    private volatile boolean backfilled;
+
+    private final Counter upsertCounter;
+    private final Counter failedCounter;
+    private final Timer writeTimer;
+
+    public ClickRollupServiceImpl(
+            ClickRollupRepository clickRollupRepository,
+            MongoTemplate mongoTemplate,
+            MeterRegistry meterRegistry
+    ) {
+        this.clickRollupRepository = clickRollupRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.upsertCounter = meterRegistry.counter("clicks.rollup.upserts");
+        this.failedCounter = meterRegistry.counter("clicks.rollup.failures");
+        this.writeTimer = meterRegistry.timer("clicks.rollup.write");
+    }
+
+    @Override
+    public void record(List<ClickEvent> clicks) {
+        if (clicks.isEmpty()) {
+            return;
+        }
+
+        Map<String, ClickRollup> deltas = new HashMap<>();
+        for (ClickEvent click : clicks) {
+            ClickRollup.forClick(deltas, click).add(click);
+        }
+
+        try {
+            if (!sinceRecorded) {
+                recordSince(clicks);
+            }
+            writeTimer.record(() -> clickRollupRepository.incrementRollups(deltas.values()));
+            upsertCounter.increment(deltas.size());
+        } catch (Exception e) {
+            log.error("Failed to update click rollups for {} clicks", clicks.size(), e);
+            failedCounter.increment();
+        }
+    }
+
+    @Override
+    public List<ClickRollup> getRollups(String shortCode, LocalDate fromDay, LocalDate toDay) {
+        return clickRollupRepository.findRollups(shortCode, fromDay, toDay);
+    }
+
+    @Override
+    public LocalDateTime getRolledUpSince() {
+        if (backfilled) {
+            return null;
+        }
+        List<SequenceCounter> counters = mongoTemplate.find(
+                Query.query(Criteria.where("_id").in(SINCE_COUNTER_ID, BACKFILLED_COUNTER_ID)),
+                SequenceCounter.class);
+        Long since = null;
+        for (SequenceCounter counter : counters) {
+            if (BACKFILLED_COUNTER_ID.equals(counter.getId())) {
+                backfilled = true;
+                return null;
+            }
+            since = counter.getSeq();
+        }
+        if (since == null) {
+            // Nothing rolled up yet, so no click stored so far is in the rollups
+            return LocalDateTime.now();
+        }
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(since), ZoneId.systemDefault());
+    }
+
+    @Override
+    public long backfill() {
+        SequenceCounter since = mongoTemplate.findById(SINCE_COUNTER_ID, SequenceCounter.class);
+        if (since == null) {
+            throw new IllegalStateException("No clicks have been rolled up yet; nothing to backfill against");
+        }
+        try {
+            mongoTemplate.insert(new SequenceCounter(BACKFILL_COUNTER_ID, since.getSeq()));
+        } catch (DuplicateKeyException e) {
+            // $inc is not idempotent; a second run would double every count
+            throw new IllegalStateException("Click rollups have already been backfilled");
+        }
+
+        Query query = Query.query(Criteria.where("_id").lt(new ObjectId(new Date(since.getSeq() * 1000))));
+        query.fields().include("shortCode", "clickedAt", "country", "region", "referrer",
+                "deviceType", "browser", "operatingSystem");
+
+        long clicks = 0;
+        Map<String, ClickRollup> deltas = new HashMap<>();
+        try (Stream<ClickEvent> stream = mongoTemplate.stream(query, ClickEvent.class)) {
+            for (ClickEvent click : (Iterable<ClickEvent>) stream::iterator) {
+                ClickRollup.forClick(deltas, click).add(click);
+                clicks++;
+                if (deltas.size() >= BACKFILL_FLUSH_SIZE) {
+                    clickRollupRepository.incrementRollups(deltas.values());
+                    deltas.clear();
+                }
+            }
+        }
+        clickRollupRepository.incrementRollups(deltas.values());
+        // Only now may readers trust the rollups for days before the since marker
+        mongoTemplate.insert(new SequenceCounter(BACKFILLED_COUNTER_ID, clicks));
+        backfilled = true;
+        log.info("Backfilled click rollups from {} clicks", clicks);
+        return clicks;
+    }
+
+    /**
+     * Records the second of the earliest click this node rolled up, keeping the minimum across
+     * nodes. Clicks stored before that second are left to {@link #backfill}. Clicks stored in
+     * buckets have no id of their own; their click time stands in for it.
+     */
+    private void recordSince(List<ClickEvent> clicks) {
+        int earliest = Integer.MAX_VALUE;
+        for (ClickEvent click : clicks) {
+            if (click.getId() != null && ObjectId.isValid(click.getId())) {
+                earliest = Math.min(earliest, new ObjectId(click.getId()).getTimestamp());
+            } else if (click.getClickedAt() != null) {
+                earliest = Math.min(earliest, (int) click.getClickedAt().atZone(ZoneId.systemDefault()).toEpochSecond());
+            }
+        }
+        if (earliest == Integer.MAX_VALUE) {
+            return;
+        }
+        mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(SINCE_COUNTER_ID)),
+                new Update().min("seq", (long) earliest),
+                FindAndModifyOptions.options().upsert(true),
+                SequenceCounter.class);
+        sinceRecorded = true;
+    }
+}
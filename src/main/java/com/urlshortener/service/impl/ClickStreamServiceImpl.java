@@ -0,0 +1,358 @@
+package com.urlshortener.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.urlshortener.config.ClickStreamConfig;
+import com.urlshortener.dto.response.ClickEventResponse;
+import com.urlshortener.entity.ClickEvent;
+import com.urlshortener.entity.ShortUrl;
+import com.urlshortener.exception.ResourceNotFoundException;
+import com.urlshortener.exception.TooManyRequestsException;
+import com.urlshortener.exception.UnauthorizedException;
+import com.urlshortener.repository.ShortUrlRepository;
+import com.urlshortener.service.ClickStreamService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans clicks out from the ingestion workers to Server-Sent Event subscribers. Each subscriber
+ * has a bounded buffer drained by sender threads, so ingestion only ever appends to buffers and
+ * never touches an emitter. When a buffer is full its oldest click is dropped, and the
+ * subscriber is sent the number of dropped clicks before its next click; a subscriber whose
+ * buffer stays full for {@code max-lag} is disconnected.
+ *
+ * <p>A write to a client that stopped reading blocks until the container's write timeout, and
+ * holds the emitter's lock meanwhile. The pool keeps {@code senders} threads and gives each
+ * further concurrent drain a thread of its own, so stalled clients only hold their own threads
+ * and never delay other streams. There is at most one drain per subscriber, and a subscriber
+ * keeps its {@code max-subscribers} slot until its drain has returned, so no more than
+ * {@code max-subscribers} threads are ever sending. The pool has {@code senders} threads of
+ * headroom for drains that are just starting or winding down; should it still be exhausted, the
+ * drain is counted as rejected and retried on the subscriber's next click or heartbeat.
+ *
+ * <p>With no subscribers, publishing costs one read of the subscriber count per batch. Each
+ * click with subscribers is serialized once, whatever their number.
+ */
+@Slf4j
+@Service
+public class ClickStreamServiceImpl implements ClickStreamService {
+
+    private final ShortUrlRepository shortUrlRepository;
+    private final ObjectMapper objectMapper;
+    private final ClickStreamConfig config;
+    private final ConcurrentMap<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    private final Counter publishedCounter;
+    private final Counter droppedCounter;
+    private final Counter laggingCounter;
+    private final Counter rejectedCounter;
+
+    private ExecutorService senders;
+
+    public ClickStreamServiceImpl(
+            ShortUrlRepository shortUrlRepository,
+            ObjectMapper objectMapper,
+            ClickStreamConfig config,
+            MeterRegistry meterRegistry
+    ) {
+        this.shortUrlRepository = shortUrlRepository;
+        this.objectMapper = objectMapper;
+        this.config = config;
+        this.publishedCounter = meterRegistry.counter("clicks.stream.published");
+        this.droppedCounter = meterRegistry.counter("clicks.stream.dropped");
+        this.laggingCounter = meterRegistry.counter("clicks.stream.disconnected", "reason", "lagging");
+        this.rejectedCounter = meterRegistry.counter("clicks.stream.rejected");
+        meterRegistry.gauge("clicks.stream.subscribers", subscriberCount);
+    }
+
+    @PostConstruct
+    void start() {
+        senders = new ThreadPoolExecutor(config.getSenders(), config.getMaxSubscribers() + config.getSenders(),
+                60, TimeUnit.SECONDS, new SynchronousQueue<>(), new CustomizableThreadFactory("click-stream-"));
+    }
+
+    @PreDestroy
+    void stop() {
+        subscribers.values().forEach(link -> link.forEach(subscriber -> subscriber.emitter.complete()));
+        senders.shutdownNow();
+    }
+
+    @Override
+    public SseEmitter subscribe(String shortCode, String userId) {
+        ShortUrl shortUrl = shortUrlRepository.findByShortCode(shortCode)
+                .orElseThrow(() -> new ResourceNotFoundException("Short URL not found"));
+        if (!shortUrl.getUserId().equals(userId)) {
+            throw new UnauthorizedException("Not authorized to view analytics for this URL");
+        }
+        if (subscriberCount.incrementAndGet() > config.getMaxSubscribers()) {
+            subscriberCount.decrementAndGet();
+            throw new TooManyRequestsException("Too many live subscribers, retry later");
+        }
+
+        SseEmitter emitter = new SseEmitter(config.getTimeout().toMillis());
+        Subscriber subscriber = new Subscriber(shortCode, emitter);
+        subscribers.compute(shortCode, (code, link) -> {
+            Set<Subscriber> result = link != null ? link : ConcurrentHashMap.newKeySet();
+            result.add(subscriber);
+            return result;
+        });
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        return emitter;
+    }
+
+    @Override
+    public void publish(List<ClickEvent> clicks) {
+        if (subscriberCount.get() == 0) {
+            return;
+        }
+        for (ClickEvent click : clicks) {
+            Set<Subscriber> link = subscribers.get(click.getShortCode());
+            if (link == null) {
+                continue;
+            }
+            String json = toJson(click);
+            if (json == null) {
+                continue;
+            }
+            for (Subscriber subscriber : link) {
+                subscriber.offer(json);
+            }
+            publishedCounter.increment();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.click-stream.heartbeat-interval:15s}")
+    void heartbeat() {
+        if (subscriberCount.get() == 0) {
+            return;
+        }
+        subscribers.values().forEach(link -> link.forEach(Subscriber::heartbeat));
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (!subscriber.closed.compareAndSet(false, true)) {
+            return;
+        }
+        subscribers.computeIfPresent(subscriber.shortCode, (code, link) -> {
+            link.remove(subscriber);
+            return link.isEmpty() ? null : link;
+        });
+        subscriber.releaseIfIdle();
+    }
+
+    /**
+     * Tells a full pool apart from shutdown, where {@link #stop()} completes every emitter.
+     */
+    private boolean overloaded() {
+        if (senders.isShutdown()) {
+            return false;
+        }
+        rejectedCounter.increment();
+        return true;
+    }
+
+    private String toJson(ClickEvent click) {
+        ClickEventResponse response = ClickEventResponse.builder()
+                .shortCode(click.getShortCode())
+                .clickedAt(click.getClickedAt())
+                .country(click.getCountry())
+                .region(click.getRegion())
+                .city(click.getCity())
+                .referrer(click.getReferrer())
+                .deviceType(click.getDeviceType())
+                .browser(click.getBrowser())
+                .operatingSystem(click.getOperatingSystem())
+                .utmSource(click.getUtmSource())
+                .utmMedium(click.getUtmMedium())
+                .utmCampaign(click.getUtmCampaign())
+                .build();
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to serialize click of {} for live subscribers", click.getShortCode(), e);
+            return null;
+        }
+    }
+
+    /**
+     * One open stream. At most one sender drains it at a time, and its slot is released once it
+     * is both closed and not draining.
+     */
+    private final class Subscriber {
+        private final String shortCode;
+        private final SseEmitter emitter;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final AtomicBoolean released = new AtomicBoolean();
+        private volatile boolean lagging;
+
+        // Guarded by this
+        private final ArrayDeque<String> buffer = new ArrayDeque<>();
+        private long dropped;
+        private long fullSince;
+        private boolean heartbeatDue;
+
+        private Subscriber(String shortCode, SseEmitter emitter) {
+            this.shortCode = shortCode;
+            this.emitter = emitter;
+        }
+
+        private void offer(String json) {
+            boolean lagging = false;
+            synchronized (this) {
+                if (buffer.size() >= config.getBufferSize()) {
+                    buffer.pollFirst();
+                    dropped++;
+                    droppedCounter.increment();
+                    long now = System.nanoTime();
+                    if (fullSince == 0) {
+                        fullSince = now;
+                    } else if (now - fullSince > config.getMaxLag().toNanos()) {
+                        lagging = true;
+                    }
+                }
+                buffer.addLast(json);
+            }
+            if (lagging) {
+                disconnect();
+                return;
+            }
+            schedule();
+        }
+
+        /**
+         * Drops a lagging subscriber. Its sender is most likely blocked in {@code send()}, which
+         * holds the emitter's lock, so the emitter is completed by a sender rather than here.
+         */
+        private void disconnect() {
+            laggingCounter.increment();
+            lagging = true;
+            remove(this);
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::complete);
+                } catch (RejectedExecutionException e) {
+                    if (overloaded()) {
+                        // No sender holds the emitter's lock while we are draining
+                        complete();
+                    }
+                }
+            }
+        }
+
+        private void complete() {
+            try {
+                emitter.complete();
+            } finally {
+                draining.set(false);
+                releaseIfIdle();
+            }
+        }
+
+        /**
+         * Both {@code closed} and {@code draining} are written before the other is read, so of
+         * {@code remove} and a finishing drain at least one sees the subscriber idle.
+         */
+        private void releaseIfIdle() {
+            if (closed.get() && !draining.get() && released.compareAndSet(false, true)) {
+                subscriberCount.decrementAndGet();
+            }
+        }
+
+        private void heartbeat() {
+            synchronized (this) {
+                heartbeatDue = true;
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (closed.get() || !draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                senders.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+                releaseIfIdle();
+                // A full pool is retried on the next click or heartbeat
+                overloaded();
+            }
+        }
+
+        private void drain() {
+            try {
+                while (!closed.get()) {
+                    String next;
+                    long lost;
+                    boolean ping;
+                    synchronized (this) {
+                        next = buffer.pollFirst();
+                        lost = dropped;
+                        dropped = 0;
+                        fullSince = 0;
+                        ping = heartbeatDue && next == null && lost == 0;
+                        heartbeatDue = false;
+                    }
+                    if (lost > 0) {
+                        emitter.send(SseEmitter.event().name("dropped").data(Map.of("dropped", lost)));
+                    }
+                    if (next != null) {
+                        emitter.send(SseEmitter.event().name("click").data(next, MediaType.APPLICATION_JSON));
+                    } else {
+                        if (ping) {
+                            emitter.send(SseEmitter.event().comment("heartbeat"));
+                        }
+                        break;
+                    }
+                }
+            } catch (Exception e) {
+                // The client went away; the container completes the emitter
+                remove(this);
+            } finally {
+                draining.set(false);
+                releaseIfIdle();
+            }
+
+            if (lagging) {
+                // Unless disconnect() claimed the completion first
+                if (draining.compareAndSet(false, true)) {
+                    complete();
+                }
+                return;
+            }
+            boolean pending;
+            synchronized (this) {
+                pending = !buffer.isEmpty() || dropped > 0;
+            }
+            // Clicks offered after the last poll but before draining was cleared
+            if (pending) {
+                schedule();
+            }
+        }
+    }
+}
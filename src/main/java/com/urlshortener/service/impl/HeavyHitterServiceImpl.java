@@ -0,0 +1,91 @@
+package com.urlshortener.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.urlshortener.config.HeavyHitterConfig;
+import com.urlshortener.dto.response.TopSourcesResponse;
+import com.urlshortener.entity.ClickEvent;
+import com.urlshortener.model.TrafficSource;
+import com.urlshortener.service.HeavyHitterService;
+import com.urlshortener.util.SpaceSaving;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Tracks the most frequent referrers and UTM campaigns with {@link SpaceSaving} summaries, one
+ * per link and one across all links for each {@link TrafficSource}. Memory is bounded by the
+ * configured capacities and number of links, however many distinct values arrive. Summaries
+ * live in memory, so they cover the clicks this node ingested since it started.
+ */
+@Service
+public class HeavyHitterServiceImpl implements HeavyHitterService {
+
+    private static final TrafficSource[] SOURCES = TrafficSource.values();
+
+    private final HeavyHitterConfig config;
+    private final Cache<String, SpaceSaving[]> linkSummaries;
+    private final SpaceSaving[] globalSummaries;
+
+    public HeavyHitterServiceImpl(HeavyHitterConfig config) {
+        this.config = config;
+        this.linkSummaries = Caffeine.newBuilder()
+                .maximumSize(config.getMaxLinks())
+                .build();
+        this.globalSummaries = newSummaries(config.getGlobalCapacity());
+    }
+
+    @Override
+    public void record(List<ClickEvent> clicks) {
+        for (ClickEvent click : clicks) {
+            SpaceSaving[] link = linkSummaries.get(click.getShortCode(), code -> newSummaries(config.getLinkCapacity()));
+            for (TrafficSource source : SOURCES) {
+                String value = source.valueOf(click);
+                if (value != null) {
+                    link[source.ordinal()].add(value);
+                    globalSummaries[source.ordinal()].add(value);
+                }
+            }
+        }
+    }
+
+    @Override
+    public TopSourcesResponse getTop(String shortCode, TrafficSource source, int limit) {
+        SpaceSaving[] summaries = shortCode == null ? globalSummaries : linkSummaries.getIfPresent(shortCode);
+        if (summaries == null) {
+            return TopSourcesResponse.builder()
+                    .shortCode(shortCode)
+                    .source(source)
+                    .observedClicks(0L)
+                    .maxError(0L)
+                    .top(List.of())
+                    .build();
+        }
+
+        SpaceSaving summary = summaries[source.ordinal()];
+        List<TopSourcesResponse.Entry> top = summary.top(limit).stream()
+                .map(entry -> TopSourcesResponse.Entry.builder()
+                        .value(entry.value())
+                        .count(entry.count())
+                        .error(entry.error())
+                        .guaranteed(entry.guaranteed())
+                        .build())
+                .toList();
+        long observed = summary.total();
+        return TopSourcesResponse.builder()
+                .shortCode(shortCode)
+                .source(source)
+                .observedClicks(observed)
+                .maxError(observed / summary.capacity())
+                .top(top)
+                .build();
+    }
+
+    private static SpaceSaving[] newSummaries(int capacity) {
+        SpaceSaving[] summaries = new SpaceSaving[SOURCES.length];
+        for (int i = 0; i < summaries.length; i++) {
+            summaries[i] = new SpaceSaving(capacity);
+        }
+        return summaries;
+    }
+}
@@ -0,0 +1,113 @@
+package com.urlshortener.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.urlshortener.config.AuthConfig;
+import com.urlshortener.exception.TooManyRequestsException;
+import com.urlshortener.exception.UnauthorizedException;
+import com.urlshortener.service.LoginGuardService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Keeps BCrypt off the request threads. Logins and registrations run on a fixed pool with a
+ * bounded queue; when the queue is full they are refused at once instead of piling up, so a
+ * credential-stuffing burst costs at most {@code hash-threads} cores and never the threads that
+ * serve redirects.
+ *
+ * <p>Before queueing, each client IP is allowed {@code ip-attempts} per window and each username
+ * {@code username-failures} failed logins per window. Windows are fixed, starting at the first
+ * attempt, and kept in memory per node.
+ */
+@Service
+public class LoginGuardServiceImpl implements LoginGuardService {
+
+    private final AuthConfig config;
+    private final ThreadPoolExecutor hashPool;
+    private final Cache<String, AtomicInteger> ipAttempts;
+    private final Cache<String, AtomicInteger> usernameFailures;
+
+    private final MeterRegistry meterRegistry;
+    private final Counter ipRejectedCounter;
+    private final Counter usernameRejectedCounter;
+    private final Counter queueRejectedCounter;
+    private final Timer waitTimer;
+
+    public LoginGuardServiceImpl(AuthConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.hashPool = new ThreadPoolExecutor(config.getHashThreads(), config.getHashThreads(),
+                0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(config.getMaxQueued()),
+                new CustomizableThreadFactory("password-hash-"), new ThreadPoolExecutor.AbortPolicy());
+        this.ipAttempts = Caffeine.newBuilder()
+                .maximumSize(config.getMaxTracked())
+                .expireAfterWrite(config.getIpWindow())
+                .build();
+        this.usernameFailures = Caffeine.newBuilder()
+                .maximumSize(config.getMaxTracked())
+                .expireAfterWrite(config.getUsernameWindow())
+                .build();
+
+        this.meterRegistry = meterRegistry;
+        this.ipRejectedCounter = meterRegistry.counter("auth.credentials.rejected", "reason", "ip");
+        this.usernameRejectedCounter = meterRegistry.counter("auth.credentials.rejected", "reason", "username");
+        this.queueRejectedCounter = meterRegistry.counter("auth.credentials.rejected", "reason", "queue_full");
+        this.waitTimer = meterRegistry.timer("auth.credentials.wait");
+        meterRegistry.gauge("auth.credentials.queued", hashPool, pool -> pool.getQueue().size());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        hashPool.shutdownNow();
+    }
+
+    @Override
+    public <T> CompletableFuture<T> submit(String operation, String clientIp, String username, Supplier<T> work) {
+        if (ipAttempts.get(clientIp, ip -> new AtomicInteger()).incrementAndGet() > config.getIpAttempts()) {
+            ipRejectedCounter.increment();
+            throw new TooManyRequestsException("Too many attempts from this address, retry later");
+        }
+        AtomicInteger failures = username != null ? usernameFailures.getIfPresent(username) : null;
+        if (failures != null && failures.get() >= config.getUsernameFailures()) {
+            usernameRejectedCounter.increment();
+            throw new TooManyRequestsException("Too many failed logins for this user, retry later");
+        }
+
+        long queuedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                long start = System.nanoTime();
+                waitTimer.record(start - queuedAt, TimeUnit.NANOSECONDS);
+                String outcome = "error";
+                try {
+                    T result = work.get();
+                    outcome = "success";
+                    return result;
+                } catch (UnauthorizedException e) {
+                    outcome = "failure";
+                    if (username != null) {
+                        usernameFailures.get(username, name -> new AtomicInteger()).incrementAndGet();
+                    }
+                    throw e;
+                } finally {
+                    meterRegistry.timer("auth.credentials", "operation", operation, "outcome", outcome)
+                            .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            }, hashPool);
+        } catch (RejectedExecutionException e) {
+            queueRejectedCounter.increment();
+            throw new TooManyRequestsException("Too many logins in progress, retry later");
+        }
+    }
+}
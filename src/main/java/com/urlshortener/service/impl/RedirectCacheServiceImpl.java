@@ -0,0 +1,52 @@
+package com.urlshortener.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.urlshortener.config.RedirectCacheConfig;
+import com.urlshortener.model.RedirectTarget;
+import com.urlshortener.repository.ShortUrlRepository;
+import com.urlshortener.service.RedirectCacheService;
+import com.urlshortener.service.ShortCodeFilterService;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+@Service
+public class RedirectCacheServiceImpl implements RedirectCacheService {
+
+    private final ShortUrlRepository shortUrlRepository;
+    private final ShortCodeFilterService shortCodeFilterService;
+    private final Cache<String, RedirectTarget> cache;
+
+    public RedirectCacheServiceImpl(
+            ShortUrlRepository shortUrlRepository,
+            ShortCodeFilterService shortCodeFilterService,
+            RedirectCacheConfig config
+    ) {
+        this.shortUrlRepository = shortUrlRepository;
+        this.shortCodeFilterService = shortCodeFilterService;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfterWrite(config.getTtl())
+                .build();
+    }
+
+    @Override
+    public Optional<RedirectTarget> getRedirectTarget(String shortCode) {
+        // Concurrent misses for the same code share a single repository lookup; unknown codes are not
+        // cached, and codes the filter has never seen are rejected without a lookup at all.
+        return Optional.ofNullable(cache.get(shortCode, code -> shortCodeFilterService.mightExist(code)
+                ? shortUrlRepository.findByShortCode(code).map(RedirectTarget::from).orElse(null)
+                : null));
+    }
+
+    @Override
+    public void markInactive(String shortCode) {
+        cache.asMap().computeIfPresent(shortCode, (code, target) -> target.toBuilder().active(false).build());
+    }
+
+    @Override
+    public void invalidate(String shortCode) {
+        cache.invalidate(shortCode);
+    }
+}
@@ -0,0 +1,212 @@
+package com.urlshortener.service.impl;
+
+import com.urlshortener.config.ShortCodeFilterConfig;
+import com.urlshortener.entity.ShortUrl;
+import com.urlshortener.model.ShortCodeFilterStats;
+import com.urlshortener.service.ShortCodeFilterService;
+import com.urlshortener.util.ScalableBloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Keeps a Bloom filter of every existing short code so lookups for codes that definitely do not
+ * exist can be rejected without querying MongoDB.
+ *
+ * <p>The filter is built in the background by streaming {@code short_urls} once the application is
+ * ready and, until then, answers "might exist" for everything. Codes created on this node are
+ * added directly; codes created elsewhere are pulled in every sync interval by scanning {@code _id}
+ * values newer than the last sync, so on a multi-node deployment a brand-new link may 404 on other
+ * nodes for up to one interval. Deleted codes stay in the filter until the next rebuild.
+ */
+@Slf4j
+@Service
+public class ShortCodeFilterServiceImpl implements ShortCodeFilterService {
+
+    // ObjectIds carry client-side second-resolution timestamps; re-scan a margin to absorb clock skew.
+    private static final Duration SYNC_MARGIN = Duration.ofMinutes(1);
+
+    private final MongoTemplate mongoTemplate;
+    private final ShortCodeFilterConfig config;
+
+    private volatile ScalableBloomFilter filter;
+    private volatile ScalableBloomFilter building;
+    private ObjectId syncedUpTo;
+    private Thread initialBuild;
+    private final AtomicLong deletionsSinceBuild = new AtomicLong();
+    // Guards rebuild and sync; a lock rather than synchronized so a virtual thread streaming from
+    // MongoDB unmounts instead of pinning its carrier
+    private final ReentrantLock scanLock = new ReentrantLock();
+
+    private final Counter rejectedCounter;
+    private final Counter passedCounter;
+
+    public ShortCodeFilterServiceImpl(MongoTemplate mongoTemplate, ShortCodeFilterConfig config, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.config = config;
+
+        this.rejectedCounter = meterRegistry.counter("shortcode.filter.lookups", "result", "rejected");
+        this.passedCounter = meterRegistry.counter("shortcode.filter.lookups", "result", "passed");
+        Gauge.builder("shortcode.filter.size", this, service -> service.getStats().getSizeInBytes())
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("shortcode.filter.insertions", this, service -> service.getStats().getInsertions())
+                .register(meterRegistry);
+        Gauge.builder("shortcode.filter.false.positive.rate", this,
+                        service -> service.getStats().getExpectedFalsePositiveRate())
+                .register(meterRegistry);
+        Gauge.builder("shortcode.filter.deletions", deletionsSinceBuild, AtomicLong::get)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean mightExist(String shortCode) {
+        ScalableBloomFilter current = filter;
+        if (!config.isEnabled() || current == null) {
+            return true;
+        }
+        if (current.mightContain(shortCode)) {
+            passedCounter.increment();
+            return true;
+        }
+        rejectedCounter.increment();
+        return false;
+    }
+
+    @Override
+    public void add(String shortCode) {
+        ScalableBloomFilter current = filter;
+        if (current != null) {
+            current.add(shortCode);
+        }
+        ScalableBloomFilter next = building;
+        if (next != null) {
+            next.add(shortCode);
+        }
+    }
+
+    @Override
+    public void recordDeletion(String shortCode) {
+        deletionsSinceBuild.incrementAndGet();
+    }
+
+    @Override
+    public void rebuild() {
+        scanLock.lock();
+        try {
+            ScalableBloomFilter fresh = new ScalableBloomFilter(config.getExpectedInsertions(), config.getFalsePositiveRate());
+            ObjectId watermark = syncWatermark();
+            building = fresh;
+            try {
+                long start = System.nanoTime();
+                Query query = new Query();
+                query.fields().include("shortCode").exclude("_id");
+                try (Stream<Document> codes = mongoTemplate.stream(query, Document.class, collectionName())) {
+                    codes.forEach(document -> fresh.add(document.getString("shortCode")));
+                }
+                filter = fresh;
+                syncedUpTo = watermark;
+                deletionsSinceBuild.set(0);
+                log.info("Built short code filter with {} codes ({} bytes) in {} ms", fresh.insertions(),
+                        fresh.sizeInBytes(), (System.nanoTime() - start) / 1_000_000);
+            } finally {
+                building = null;
+            }
+        } finally {
+            scanLock.unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void buildOnStartup() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        initialBuild = new CustomizableThreadFactory("short-code-filter-").newThread(() -> {
+            while (filter == null && !Thread.currentThread().isInterrupted()) {
+                try {
+                    rebuild();
+                } catch (Exception e) {
+                    log.warn("Short code filter build failed, retrying: {}", e.getMessage());
+                    try {
+                        Thread.sleep(config.getSyncInterval().toMillis());
+                    } catch (InterruptedException interrupted) {
+                        return;
+                    }
+                }
+            }
+        });
+        initialBuild.setDaemon(true);
+        initialBuild.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        if (initialBuild != null) {
+            initialBuild.interrupt();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.short-code-filter.sync-interval:5s}")
+    public void sync() {
+        if (!config.isEnabled() || filter == null) {
+            return;
+        }
+        scanLock.lock();
+        try {
+            ObjectId watermark = syncWatermark();
+            Query query = Query.query(Criteria.where("_id").gte(syncedUpTo));
+            query.fields().include("shortCode").exclude("_id");
+            ScalableBloomFilter current = filter;
+            try (Stream<Document> codes = mongoTemplate.stream(query, Document.class, collectionName())) {
+                codes.forEach(document -> current.add(document.getString("shortCode")));
+            }
+            syncedUpTo = watermark;
+        } catch (Exception e) {
+            log.warn("Short code filter sync failed: {}", e.getMessage());
+        } finally {
+            scanLock.unlock();
+        }
+    }
+
+    @Override
+    public ShortCodeFilterStats getStats() {
+        ScalableBloomFilter current = filter;
+        return ShortCodeFilterStats.builder()
+                .enabled(config.isEnabled())
+                .ready(current != null)
+                .insertions(current != null ? current.insertions() : 0)
+                .deletionsSinceBuild(deletionsSinceBuild.get())
+                .sizeInBytes(current != null ? current.sizeInBytes() : 0)
+                .targetFalsePositiveRate(config.getFalsePositiveRate())
+                .expectedFalsePositiveRate(current != null ? current.expectedFalsePositiveRate() : 1.0)
+                .build();
+    }
+
+    private ObjectId syncWatermark() {
+        return new ObjectId(Date.from(Instant.now().minus(SYNC_MARGIN)));
+    }
+
+    private String collectionName() {
+        return mongoTemplate.getCollectionName(ShortUrl.class);
+    }
+}
@@ -1,11 +1,13 @@
 package com.urlshortener.service.impl;
 
 import com.urlshortener.service.ShortCodeGeneratorService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
 import java.security.SecureRandom;
 
 @Service
+@ConditionalOnProperty(name = "app.short-code.generator", havingValue = "random", matchIfMissing = true)
 public class ShortCodeGeneratorServiceImpl implements ShortCodeGeneratorService {
 
     private static final String CHARACTERS = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
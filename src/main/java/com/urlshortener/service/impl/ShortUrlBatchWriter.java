@@ -0,0 +1,156 @@
+package com.urlshortener.service.impl;
+
+import com.urlshortener.entity.ShortUrl;
+import com.urlshortener.repository.ShortUrlRepository;
+import com.urlshortener.service.ShortCodeFilterService;
+import com.urlshortener.service.ShortCodeGeneratorService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Inserts batches of links in a constant number of round trips: one {@code $in} query for
+ * custom aliases, usually one for generated codes, and one unordered bulk insert. Links that
+ * lose a race at insert time fail if they carry a custom alias and get a new code otherwise.
+ *
+ * <p>Links must come with their id set. A link whose id is already stored counts as created
+ * before, which makes re-running a batch with the same ids harmless.
+ */
+@Component
+@RequiredArgsConstructor
+class ShortUrlBatchWriter {
+
+    enum Outcome {
+        CREATED,
+        /** Its id was already stored. */
+        ALREADY_CREATED,
+        ALIAS_TAKEN,
+        /** An earlier link in the same batch has the same custom alias. */
+        ALIAS_REPEATED,
+        NO_CODE_AVAILABLE
+    }
+
+    private final ShortUrlRepository shortUrlRepository;
+    private final ShortCodeGeneratorService shortCodeGeneratorService;
+    private final ShortCodeFilterService shortCodeFilterService;
+
+    /**
+     * Inserts {@code urls}; those with a short code keep it as a custom alias, the others get a
+     * generated one. Returns the outcome of each link, by position.
+     */
+    Outcome[] write(List<ShortUrl> urls) {
+        Outcome[] outcomes = new Outcome[urls.size()];
+        Map<String, Integer> aliases = new HashMap<>();
+        List<Integer> generated = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            String alias = urls.get(i).getShortCode();
+            if (alias == null) {
+                generated.add(i);
+            } else if (aliases.putIfAbsent(alias, i) != null) {
+                outcomes[i] = Outcome.ALIAS_REPEATED;
+            }
+        }
+
+        Map<String, String> taken = findIdsByShortCode(aliases.keySet());
+        aliases.forEach((alias, i) -> {
+            String id = taken.get(alias);
+            if (id != null) {
+                outcomes[i] = id.equals(urls.get(i).getId()) ? Outcome.ALREADY_CREATED : Outcome.ALIAS_TAKEN;
+            }
+        });
+        List<String> codes = generateUniqueShortCodes(generated.size(), aliases.keySet());
+        for (int k = 0; k < generated.size(); k++) {
+            urls.get(generated.get(k)).setShortCode(codes.get(k));
+        }
+
+        List<Integer> pending = new ArrayList<>();
+        for (int i = 0; i < outcomes.length; i++) {
+            if (outcomes[i] == null) {
+                pending.add(i);
+            }
+        }
+        // The unique index is the final arbiter, as for single creation
+        for (int attempt = 1; !pending.isEmpty(); attempt++) {
+            List<ShortUrl> batch = new ArrayList<>(pending.size());
+            for (int i : pending) {
+                // Register the code before it becomes visible so a redirect can never be filtered out
+                shortCodeFilterService.add(urls.get(i).getShortCode());
+                batch.add(urls.get(i));
+            }
+            Set<Integer> duplicates = shortUrlRepository.insertAllUnordered(batch);
+            Set<String> storedIds = duplicates.isEmpty() ? Set.of() : findStoredIds(batch, duplicates);
+
+            List<Integer> retry = new ArrayList<>();
+            for (int k = 0; k < pending.size(); k++) {
+                int i = pending.get(k);
+                ShortUrl url = urls.get(i);
+                if (!duplicates.contains(k)) {
+                    outcomes[i] = Outcome.CREATED;
+                } else if (storedIds.contains(url.getId())) {
+                    outcomes[i] = Outcome.ALREADY_CREATED;
+                } else if (aliases.containsKey(url.getShortCode())) {
+                    outcomes[i] = Outcome.ALIAS_TAKEN;
+                } else if (attempt >= UrlServiceImpl.MAX_SHORT_CODE_ATTEMPTS) {
+                    outcomes[i] = Outcome.NO_CODE_AVAILABLE;
+                } else {
+                    retry.add(i);
+                }
+            }
+            List<String> fresh = generateUniqueShortCodes(retry.size(), aliases.keySet());
+            for (int k = 0; k < retry.size(); k++) {
+                urls.get(retry.get(k)).setShortCode(fresh.get(k));
+            }
+            pending = retry;
+        }
+        return outcomes;
+    }
+
+    private Set<String> findStoredIds(List<ShortUrl> batch, Set<Integer> duplicates) {
+        List<String> ids = new ArrayList<>(duplicates.size());
+        for (int k : duplicates) {
+            ids.add(batch.get(k).getId());
+        }
+        Set<String> stored = new HashSet<>();
+        shortUrlRepository.findAllById(ids).forEach(url -> stored.add(url.getId()));
+        return stored;
+    }
+
+    /**
+     * Returns the ids of the links using {@code shortCodes}, querying only the codes the filter
+     * cannot rule out.
+     */
+    private Map<String, String> findIdsByShortCode(Set<String> shortCodes) {
+        List<String> suspects = shortCodes.stream().filter(shortCodeFilterService::mightExist).toList();
+        return shortUrlRepository.findIdsByShortCode(suspects);
+    }
+
+    /**
+     * Generates {@code count} distinct codes not in use and not in {@code reserved}, checking
+     * each round of candidates with one query.
+     */
+    private List<String> generateUniqueShortCodes(int count, Set<String> reserved) {
+        if (count == 0) {
+            return List.of();
+        }
+        if (shortCodeGeneratorService.generatesUniqueCodes()) {
+            return shortCodeGeneratorService.generateShortCodes(count);
+        }
+
+        Set<String> codes = new LinkedHashSet<>();
+        while (codes.size() < count) {
+            Set<String> candidates = new LinkedHashSet<>(shortCodeGeneratorService.generateShortCodes(count - codes.size()));
+            candidates.removeAll(reserved);
+            candidates.removeAll(codes);
+            candidates.removeAll(findIdsByShortCode(candidates).keySet());
+            codes.addAll(candidates);
+        }
+        return new ArrayList<>(codes);
+    }
+}
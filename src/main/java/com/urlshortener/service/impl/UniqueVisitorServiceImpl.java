@@ -0,0 +1,118 @@
+package com.urlshortener.service.impl;
+
+import com.urlshortener.entity.ClickEvent;
+import com.urlshortener.entity.ClickRollup;
+import com.urlshortener.entity.VisitorSketch;
+import com.urlshortener.model.UniqueVisitors;
+import com.urlshortener.repository.VisitorSketchRepository;
+import com.urlshortener.service.UniqueVisitorService;
+import com.urlshortener.util.HyperLogLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps a HyperLogLog sketch of visitors, identified by IP address and user agent, per short
+ * code and day. Each ingested batch is folded into one sketch per short code and day, which is
+ * merged into the stored one with an optimistic read-modify-write. Once a day has many visitors
+ * most batches leave its sketch unchanged, and then nothing is written.
+ */
+@Slf4j
+@Service
+public class UniqueVisitorServiceImpl implements UniqueVisitorService {
+
+    private static final int MAX_MERGE_ATTEMPTS = 5;
+
+    private final VisitorSketchRepository visitorSketchRepository;
+
+    private final Counter writeCounter;
+    private final Counter conflictCounter;
+    private final Counter failedCounter;
+
+    public UniqueVisitorServiceImpl(VisitorSketchRepository visitorSketchRepository, MeterRegistry meterRegistry) {
+        this.visitorSketchRepository = visitorSketchRepository;
+        this.writeCounter = meterRegistry.counter("visitors.sketch.writes");
+        this.conflictCounter = meterRegistry.counter("visitors.sketch.conflicts");
+        this.failedCounter = meterRegistry.counter("visitors.sketch.failures");
+    }
+
+    @Override
+    public void record(List<ClickEvent> clicks) {
+        Map<String, VisitorSketch> keys = new HashMap<>();
+        Map<String, HyperLogLog> deltas = new HashMap<>();
+        for (ClickEvent click : clicks) {
+            if (click.getIpAddress() == null || click.getClickedAt() == null) {
+                continue;
+            }
+            String day = click.getClickedAt().toLocalDate().format(DateTimeFormatter.ISO_DATE);
+            String id = ClickRollup.idOf(click.getShortCode(), day);
+            keys.computeIfAbsent(id, key -> VisitorSketch.builder().id(key).shortCode(click.getShortCode()).day(day).build());
+            String userAgent = click.getUserAgent() != null ? click.getUserAgent() : "";
+            deltas.computeIfAbsent(id, key -> new HyperLogLog()).add(click.getIpAddress() + '\n' + userAgent);
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        try {
+            Map<String, VisitorSketch> stored = new HashMap<>();
+            visitorSketchRepository.findAllById(deltas.keySet()).forEach(sketch -> stored.put(sketch.getId(), sketch));
+            deltas.forEach((id, delta) -> merge(keys.get(id), stored.get(id), delta));
+        } catch (Exception e) {
+            log.error("Failed to update visitor sketches for {} clicks", clicks.size(), e);
+            failedCounter.increment();
+        }
+    }
+
+    @Override
+    public UniqueVisitors count(String shortCode, LocalDate fromDay, LocalDate toDay) {
+        List<VisitorSketch> sketches = visitorSketchRepository.findByIdRange(
+                ClickRollup.idOf(shortCode, fromDay == null ? "" : fromDay.format(DateTimeFormatter.ISO_DATE)),
+                toDay == null ? shortCode + ";" : ClickRollup.idOf(shortCode, toDay.format(DateTimeFormatter.ISO_DATE)));
+
+        HyperLogLog union = new HyperLogLog();
+        Map<String, Long> byDate = new LinkedHashMap<>();
+        for (VisitorSketch stored : sketches) {
+            HyperLogLog sketch = HyperLogLog.fromBytes(stored.getSketch());
+            byDate.put(stored.getDay(), sketch.estimate());
+            union.merge(sketch);
+        }
+        return new UniqueVisitors(union.estimate(), byDate);
+    }
+
+    private void merge(VisitorSketch key, VisitorSketch stored, HyperLogLog delta) {
+        for (int attempt = 1; attempt <= MAX_MERGE_ATTEMPTS; attempt++) {
+            try {
+                if (stored == null) {
+                    key.setSketch(delta.toBytes());
+                    visitorSketchRepository.insert(key);
+                } else {
+                    HyperLogLog merged = HyperLogLog.fromBytes(stored.getSketch());
+                    if (!merged.merge(delta)) {
+                        return;
+                    }
+                    stored.setSketch(merged.toBytes());
+                    visitorSketchRepository.save(stored);
+                }
+                writeCounter.increment();
+                return;
+            } catch (DuplicateKeyException | OptimisticLockingFailureException e) {
+                // Another writer got there first; merge into what it wrote
+                conflictCounter.increment();
+                stored = visitorSketchRepository.findById(key.getId()).orElse(null);
+            }
+        }
+        log.warn("Gave up merging visitor sketch {} after {} conflicting attempts", key.getId(), MAX_MERGE_ATTEMPTS);
+        failedCounter.increment();
+    }
+}
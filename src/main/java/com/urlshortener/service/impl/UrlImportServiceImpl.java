@@ -0,0 +1,437 @@
+package com.urlshortener.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.urlshortener.config.UrlImportConfig;
+import com.urlshortener.entity.ShortUrl;
+import com.urlshortener.model.ExportFormat;
+import com.urlshortener.model.UrlImportReport;
+import com.urlshortener.repository.UserRepository;
+import com.urlshortener.service.UrlImportService;
+import com.urlshortener.util.CsvReader;
+import com.urlshortener.util.CsvWriter;
+import com.urlshortener.util.UrlValidator;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Streams links from a CSV or NDJSON file into {@code short_urls}. The reading thread parses a
+ * batch at a time and hands it to a validator pool; validated batches are inserted in file order
+ * with {@link ShortUrlBatchWriter}, while the next batches are being validated. Memory holds at
+ * most one batch per validator plus the one being inserted.
+ *
+ * <p>After each batch, its rejected rows are appended to {@code <file>.rejected.csv} and the
+ * number of rows handled is written to {@code <file>.checkpoint}. A rerun skips the rows the
+ * checkpoint covers. Each row's id is derived from the file name, its position and its content,
+ * so rows inserted by a run that died before its checkpoint are recognised rather than duplicated.
+ */
+@Slf4j
+@Service
+public class UrlImportServiceImpl implements UrlImportService {
+
+    private static final Pattern ALIAS = Pattern.compile("^[a-zA-Z0-9_-]{4,20}$");
+    private static final Duration PROGRESS_INTERVAL = Duration.ofSeconds(10);
+    private static final String[] COLUMNS = {"originalUrl", "customAlias", "expiresAt", "userId"};
+
+    private final ShortUrlBatchWriter shortUrlBatchWriter;
+    private final UrlValidator urlValidator;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final UrlImportConfig config;
+
+    public UrlImportServiceImpl(
+            ShortUrlBatchWriter shortUrlBatchWriter,
+            UrlValidator urlValidator,
+            UserRepository userRepository,
+            ObjectMapper objectMapper,
+            UrlImportConfig config
+    ) {
+        this.shortUrlBatchWriter = shortUrlBatchWriter;
+        this.urlValidator = urlValidator;
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        this.config = config;
+    }
+
+    @Override
+    public UrlImportReport importFile(Path file) throws IOException {
+        String name = file.getFileName().toString();
+        ExportFormat format = config.getFormat() != null ? ExportFormat.parse(config.getFormat()) : formatOf(name);
+        Path checkpoint = file.resolveSibling(name + ".checkpoint");
+        Path rejects = file.resolveSibling(name + ".rejected.csv");
+        long resumeAfter = Files.exists(checkpoint) ? Long.parseLong(Files.readString(checkpoint).trim()) : 0;
+        if (resumeAfter > 0) {
+            log.info("Resuming import of {} after row {}", file, resumeAfter);
+        }
+
+        Run run = new Run(name, checkpoint, resumeAfter);
+        boolean newRejects = !Files.exists(rejects) || Files.size(rejects) == 0;
+        ExecutorService validators = Executors.newFixedThreadPool(config.getValidators(), new CustomizableThreadFactory("url-import-"));
+        try (RowSource rows = format == ExportFormat.CSV ? new CsvRows(open(file)) : new NdjsonRows(open(file));
+             Writer rejectsOut = Files.newBufferedWriter(rejects, StandardCharsets.UTF_8,
+                     StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            run.rejects = new CsvWriter(rejectsOut);
+            run.rejectsOut = rejectsOut;
+            if (newRejects) {
+                run.rejects.writeRow("row", "reason", "originalUrl", "customAlias", "expiresAt", "userId");
+            }
+
+            Deque<Future<List<Validated>>> inFlight = new ArrayDeque<>();
+            List<Row> batch = new ArrayList<>(config.getBatchSize());
+            Row row;
+            while ((row = rows.next()) != null) {
+                if (row.number() <= resumeAfter) {
+                    continue;
+                }
+                batch.add(row);
+                if (batch.size() == config.getBatchSize()) {
+                    List<Row> rowsToValidate = batch;
+                    inFlight.add(validators.submit(() -> validate(name, rowsToValidate)));
+                    batch = new ArrayList<>(config.getBatchSize());
+                    if (inFlight.size() > config.getValidators()) {
+                        write(run, await(inFlight.poll()));
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                List<Row> rowsToValidate = batch;
+                inFlight.add(validators.submit(() -> validate(name, rowsToValidate)));
+            }
+            while (!inFlight.isEmpty()) {
+                write(run, await(inFlight.poll()));
+            }
+        } finally {
+            validators.shutdownNow();
+        }
+
+        UrlImportReport report = run.report();
+        log.info("Imported {}: {} links created, {} already present, {} rejected in {}",
+                file, report.getImported(), report.getAlreadyImported(), report.getRejected(), report.getElapsed());
+        return report;
+    }
+
+    private List<Validated> validate(String importName, List<Row> rows) {
+        List<Validated> validated = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            validated.add(validate(importName, row));
+        }
+        return validated;
+    }
+
+    private Validated validate(String importName, Row row) {
+        if (row.rejection() != null) {
+            return new Validated(row, null, row.rejection());
+        }
+        if (!urlValidator.isValidUrl(row.originalUrl())) {
+            return new Validated(row, null, "Invalid URL");
+        }
+        String alias = blankToNull(row.customAlias());
+        if (alias != null && !ALIAS.matcher(alias).matches()) {
+            return new Validated(row, null, "Invalid custom alias");
+        }
+        String userId = blankToNull(row.userId()) != null ? row.userId() : config.getUserId();
+        if (userId == null) {
+            return new Validated(row, null, "No owner; set userId on the row or app.url-import.user-id");
+        }
+        LocalDateTime expiresAt;
+        try {
+            expiresAt = blankToNull(row.expiresAt()) == null ? null : LocalDateTime.parse(row.expiresAt());
+        } catch (DateTimeParseException e) {
+            return new Validated(row, null, "Invalid expiresAt");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        ShortUrl url = ShortUrl.builder()
+                .id(rowId(importName, row))
+                .shortCode(alias)
+                .originalUrl(row.originalUrl())
+                .userId(userId)
+                .expiresAt(expiresAt)
+                .totalClicks(0L)
+                .createdAt(now)
+                .updatedAt(now)
+                .active(true)
+                .build();
+        return new Validated(row, url, null);
+    }
+
+    private void write(Run run, List<Validated> batch) throws IOException {
+        List<Validated> accepted = new ArrayList<>(batch.size());
+        for (Validated validated : batch) {
+            if (validated.rejection() != null) {
+                run.reject(validated.row(), validated.rejection());
+            } else if (!run.ownerExists(validated.url().getUserId())) {
+                run.reject(validated.row(), "Unknown user");
+            } else {
+                accepted.add(validated);
+            }
+        }
+
+        List<ShortUrl> urls = new ArrayList<>(accepted.size());
+        for (Validated validated : accepted) {
+            urls.add(validated.url());
+        }
+        ShortUrlBatchWriter.Outcome[] outcomes = shortUrlBatchWriter.write(urls);
+        for (int i = 0; i < outcomes.length; i++) {
+            switch (outcomes[i]) {
+                case CREATED -> run.imported++;
+                case ALREADY_CREATED -> run.alreadyImported++;
+                case ALIAS_TAKEN -> run.reject(accepted.get(i).row(), "Custom alias already exists");
+                case ALIAS_REPEATED -> run.reject(accepted.get(i).row(), "Custom alias repeated in the file");
+                case NO_CODE_AVAILABLE -> run.reject(accepted.get(i).row(), "Could not allocate a unique short code");
+            }
+        }
+        run.checkpoint(batch.get(batch.size() - 1).row().number());
+    }
+
+    private static List<Validated> await(Future<List<Validated>> batch) throws IOException {
+        try {
+            return batch.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Import interrupted");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Validating rows failed", e.getCause());
+        }
+    }
+
+    /**
+     * Same row of the same file, same id; 12 bytes of a SHA-256 make a valid {@link ObjectId}.
+     */
+    private static String rowId(String importName, Row row) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            String key = importName + "\n" + row.number() + "\n" + row.originalUrl() + "\n" + row.customAlias()
+                    + "\n" + row.expiresAt() + "\n" + row.userId();
+            return new ObjectId(Arrays.copyOf(digest.digest(key.getBytes(StandardCharsets.UTF_8)), 12)).toHexString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static ExportFormat formatOf(String fileName) {
+        String name = fileName.toLowerCase().replaceFirst("\\.gz$", "");
+        if (name.endsWith(".csv")) {
+            return ExportFormat.CSV;
+        }
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+            return ExportFormat.NDJSON;
+        }
+        throw new IllegalArgumentException("Cannot tell the format of " + fileName + "; set app.url-import.format");
+    }
+
+    private static BufferedReader open(Path file) throws IOException {
+        InputStream in = Files.newInputStream(file);
+        if (file.getFileName().toString().toLowerCase().endsWith(".gz")) {
+            in = new GZIPInputStream(in, 64 * 1024);
+        }
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    /**
+     * A data row, numbered from 1 in file order. A row that could not be parsed carries the
+     * reason in {@code rejection}.
+     */
+    private record Row(long number, String originalUrl, String customAlias, String expiresAt, String userId, String rejection) {
+    }
+
+    private record Validated(Row row, ShortUrl url, String rejection) {
+    }
+
+    private interface RowSource extends Closeable {
+        /**
+         * Returns the next row, or {@code null} at the end of the file.
+         */
+        Row next() throws IOException;
+    }
+
+    private static final class CsvRows implements RowSource {
+        private final BufferedReader in;
+        private final CsvReader csv;
+        private final int[] columns = new int[COLUMNS.length];
+        private long number;
+
+        private CsvRows(BufferedReader in) throws IOException {
+            this.in = in;
+            this.csv = new CsvReader(in);
+            List<String> header = csv.readRow();
+            if (header == null) {
+                throw new IOException("Empty file; expected a header row");
+            }
+            for (int c = 0; c < COLUMNS.length; c++) {
+                columns[c] = header.indexOf(COLUMNS[c]);
+            }
+            if (columns[0] < 0) {
+                throw new IOException("Header row has no originalUrl column");
+            }
+        }
+
+        @Override
+        public Row next() throws IOException {
+            List<String> fields;
+            do {
+                fields = csv.readRow();
+                if (fields == null) {
+                    return null;
+                }
+                number++;
+            } while (fields.size() == 1 && fields.get(0).isBlank());
+            return new Row(number, field(fields, 0), field(fields, 1), field(fields, 2), field(fields, 3), null);
+        }
+
+        private String field(List<String> fields, int column) {
+            int index = columns[column];
+            return index >= 0 && index < fields.size() ? fields.get(index) : null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    private final class NdjsonRows implements RowSource {
+        private final BufferedReader in;
+        private long number;
+
+        private NdjsonRows(BufferedReader in) {
+            this.in = in;
+        }
+
+        @Override
+        public Row next() throws IOException {
+            String line;
+            do {
+                line = in.readLine();
+                if (line == null) {
+                    return null;
+                }
+                number++;
+            } while (line.isBlank());
+            try {
+                JsonNode json = objectMapper.readTree(line);
+                return new Row(number, text(json, COLUMNS[0]), text(json, COLUMNS[1]), text(json, COLUMNS[2]),
+                        text(json, COLUMNS[3]), null);
+            } catch (JsonProcessingException e) {
+                return new Row(number, line, null, null, null, "Malformed JSON");
+            }
+        }
+
+        private static String text(JsonNode json, String field) {
+            JsonNode value = json.get(field);
+            return value == null || value.isNull() ? null : value.asText();
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    /**
+     * State of one import run, touched only by the writing thread.
+     */
+    private final class Run {
+        private final String name;
+        private final Path checkpoint;
+        private final long resumedAfter;
+        private final long start = System.nanoTime();
+        private final Map<String, Boolean> owners = new HashMap<>();
+        private final Set<String> unknownOwnersLogged = new HashSet<>();
+        private CsvWriter rejects;
+        private Writer rejectsOut;
+        private long imported;
+        private long alreadyImported;
+        private long rejected;
+        private long lastProgress = start;
+
+        private Run(String name, Path checkpoint, long resumedAfter) {
+            this.name = name;
+            this.checkpoint = checkpoint;
+            this.resumedAfter = resumedAfter;
+        }
+
+        private boolean ownerExists(String userId) {
+            boolean exists = owners.computeIfAbsent(userId, userRepository::existsByUsername);
+            if (!exists && unknownOwnersLogged.add(userId)) {
+                log.warn("Rejecting rows of unknown user {}", userId);
+            }
+            return exists;
+        }
+
+        private void reject(Row row, String reason) throws IOException {
+            rejected++;
+            rejects.writeRow(Long.toString(row.number()), reason, row.originalUrl(), row.customAlias(),
+                    row.expiresAt(), row.userId());
+        }
+
+        /**
+         * Records that every row up to {@code row} is handled: rejects first, then the
+         * checkpoint, replaced atomically so a crash leaves the old or the new one.
+         */
+        private void checkpoint(long row) throws IOException {
+            rejectsOut.flush();
+            Path temp = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+            Files.writeString(temp, Long.toString(row));
+            Files.move(temp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            long now = System.nanoTime();
+            if (now - lastProgress >= PROGRESS_INTERVAL.toNanos()) {
+                lastProgress = now;
+                double seconds = (now - start) / 1e9;
+                log.info("Importing {}: row {}, {} created, {} rejected, {} rows/s",
+                        name, row, imported, rejected, Math.round((row - resumedAfter) / seconds));
+            }
+        }
+
+        private UrlImportReport report() {
+            return UrlImportReport.builder()
+                    .resumedAfter(resumedAfter)
+                    .imported(imported)
+                    .alreadyImported(alreadyImported)
+                    .rejected(rejected)
+                    .elapsed(Duration.ofNanos(System.nanoTime() - start))
+                    .build();
+        }
+    }
+}
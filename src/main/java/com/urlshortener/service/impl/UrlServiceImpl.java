@@ -2,49 +2,87 @@ package com.urlshortener.service.impl;
 
 import com.urlshortener.dto.request.CreateUrlRequest;
 import com.urlshortener.dto.request.UpdateUrlRequest;
+import com.urlshortener.dto.response.BulkCreateUrlResponse;
+import com.urlshortener.dto.response.UrlPageResponse;
 import com.urlshortener.dto.response.UrlResponse;
-import com.urlshortener.entity.ClickEvent;
 import com.urlshortener.entity.ShortUrl;
+import com.urlshortener.exception.BadRequestException;
 import com.urlshortener.exception.DuplicateResourceException;
 import com.urlshortener.exception.ResourceNotFoundException;
 import com.urlshortener.exception.UnauthorizedException;
-import com.urlshortener.repository.ClickEventRepository;
+import com.urlshortener.model.RawClick;
+import com.urlshortener.model.RedirectTarget;
+import com.urlshortener.model.UrlCursor;
+import com.urlshortener.model.UrlListQuery;
 import com.urlshortener.repository.ShortUrlRepository;
+import com.urlshortener.service.ClickCounterService;
+import com.urlshortener.service.ClickIngestionService;
+import com.urlshortener.service.RedirectCacheService;
+import com.urlshortener.service.ShortCodeFilterService;
 import com.urlshortener.service.ShortCodeGeneratorService;
 import com.urlshortener.service.UrlService;
-import com.urlshortener.service.UserAgentService;
-import com.urlshortener.util.GeoLocationUtil;
+import com.urlshortener.util.StageTimers;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.http.HttpServletRequest;
-import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.Locale;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 public class UrlServiceImpl implements UrlService {
 
+    static final int MAX_SHORT_CODE_ATTEMPTS = 5;
+
     private final ShortUrlRepository shortUrlRepository;
-    private final ClickEventRepository clickEventRepository;
     private final ShortCodeGeneratorService shortCodeGeneratorService;
-    private final GeoLocationUtil geoLocationUtil;
-    private final UserAgentService userAgentService;
+    private final ClickIngestionService clickIngestionService;
+    private final ClickCounterService clickCounterService;
+    private final RedirectCacheService redirectCacheService;
+    private final ShortCodeFilterService shortCodeFilterService;
+    private final ShortUrlBatchWriter shortUrlBatchWriter;
+    private final StageTimers<RedirectStage, RedirectOutcome> redirectTimers;
 
     @Value("${app.base-url:http://localhost:8080}")
     private String baseUrl;
 
+    public UrlServiceImpl(
+            ShortUrlRepository shortUrlRepository,
+            ShortCodeGeneratorService shortCodeGeneratorService,
+            ClickIngestionService clickIngestionService,
+            ClickCounterService clickCounterService,
+            RedirectCacheService redirectCacheService,
+            ShortCodeFilterService shortCodeFilterService,
+            ShortUrlBatchWriter shortUrlBatchWriter,
+            MeterRegistry meterRegistry
+    ) {
+        this.shortUrlRepository = shortUrlRepository;
+        this.shortCodeGeneratorService = shortCodeGeneratorService;
+        this.clickIngestionService = clickIngestionService;
+        this.clickCounterService = clickCounterService;
+        this.redirectCacheService = redirectCacheService;
+        this.shortCodeFilterService = shortCodeFilterService;
+        this.shortUrlBatchWriter = shortUrlBatchWriter;
+        this.redirectTimers = new StageTimers<>(meterRegistry, "redirect", RedirectStage.class, RedirectOutcome.class);
+    }
+
     @Override
     @Transactional
     public UrlResponse createShortUrl(CreateUrlRequest request, String userId) {
         String shortCode;
+        boolean customAlias = request.getCustomAlias() != null && !request.getCustomAlias().isEmpty();
 
-        if (request.getCustomAlias() != null && !request.getCustomAlias().isEmpty()) {
-            if (shortUrlRepository.existsByShortCode(request.getCustomAlias())) {
+        if (customAlias) {
+            if (shortCodeFilterService.mightExist(request.getCustomAlias())
+                    && shortUrlRepository.existsByShortCode(request.getCustomAlias())) {
                 throw new DuplicateResourceException("Custom alias already exists");
             }
             shortCode = request.getCustomAlias();
@@ -61,33 +99,95 @@ public class UrlServiceImpl implements UrlService {
                 .active(true)
                 .build();
 
-        shortUrlRepository.save(shortUrl);
+        // The unique index is the final arbiter: a custom alias may race another request, and a
+        // generated code may coincide with an existing custom alias.
+        for (int attempt = 1; ; attempt++) {
+            try {
+                // Register the code before it becomes visible so a redirect can never be filtered out
+                shortCodeFilterService.add(shortUrl.getShortCode());
+                shortUrlRepository.save(shortUrl);
+                break;
+            } catch (DuplicateKeyException e) {
+                if (customAlias) {
+                    throw new DuplicateResourceException("Custom alias already exists");
+                }
+                if (attempt >= MAX_SHORT_CODE_ATTEMPTS) {
+                    throw new DuplicateResourceException("Could not allocate a unique short code");
+                }
+                shortUrl.setShortCode(generateUniqueShortCode());
+            }
+        }
 
         return mapToResponse(shortUrl);
     }
 
     @Override
-    @Transactional
+    public BulkCreateUrlResponse createShortUrls(List<CreateUrlRequest> requests, String userId) {
+        LocalDateTime now = LocalDateTime.now();
+        List<ShortUrl> urls = new ArrayList<>(requests.size());
+        for (CreateUrlRequest request : requests) {
+            String alias = request.getCustomAlias();
+            urls.add(newShortUrl(request, alias == null || alias.isEmpty() ? null : alias, userId, now));
+        }
+        ShortUrlBatchWriter.Outcome[] outcomes = shortUrlBatchWriter.write(urls);
+
+        List<BulkCreateUrlResponse.Result> results = new ArrayList<>(outcomes.length);
+        int created = 0;
+        for (int i = 0; i < outcomes.length; i++) {
+            BulkCreateUrlResponse.Result.ResultBuilder result = BulkCreateUrlResponse.Result.builder().index(i);
+            switch (outcomes[i]) {
+                case CREATED, ALREADY_CREATED -> {
+                    result.status(201).url(mapToResponse(urls.get(i)));
+                    created++;
+                }
+                case ALIAS_TAKEN -> result.status(409).error("Custom alias already exists");
+                case ALIAS_REPEATED -> result.status(409).error("Custom alias repeated in this request");
+                case NO_CODE_AVAILABLE -> result.status(409).error("Could not allocate a unique short code");
+            }
+            results.add(result.build());
+        }
+        return BulkCreateUrlResponse.builder()
+                .created(created)
+                .failed(outcomes.length - created)
+                .results(results)
+                .build();
+    }
+
+    @Override
     public String redirect(String shortCode, HttpServletRequest request) {
-        ShortUrl shortUrl = shortUrlRepository.findByShortCode(shortCode)
-                .orElseThrow(() -> new ResourceNotFoundException("Short URL not found"));
+        StageTimers<RedirectStage, RedirectOutcome>.Timing timing = redirectTimers.start();
+
+        Optional<RedirectTarget> found = redirectCacheService.getRedirectTarget(shortCode);
+        timing.endStage(RedirectStage.LOOKUP);
+        if (found.isEmpty()) {
+            timing.finish(RedirectOutcome.NOT_FOUND);
+            throw new ResourceNotFoundException("Short URL not found");
+        }
+        RedirectTarget target = found.get();
 
-        if (!shortUrl.isActive()) {
+        if (!target.isActive()) {
+            timing.endStage(RedirectStage.EXPIRY);
+            timing.finish(RedirectOutcome.INACTIVE);
             throw new ResourceNotFoundException("Short URL is inactive");
         }
 
-        if (shortUrl.getExpiresAt() != null && shortUrl.getExpiresAt().isBefore(LocalDateTime.now())) {
-            shortUrl.setActive(false);
-            shortUrlRepository.save(shortUrl);
+        if (target.isExpiredAt(LocalDateTime.now())) {
+            shortUrlRepository.deactivate(shortCode);
+            redirectCacheService.markInactive(shortCode);
+            timing.endStage(RedirectStage.EXPIRY);
+            timing.finish(RedirectOutcome.EXPIRED);
             throw new ResourceNotFoundException("Short URL has expired");
         }
+        timing.endStage(RedirectStage.EXPIRY);
 
-        trackClick(shortUrl, request);
+        trackClick(shortCode, request);
+        timing.endStage(RedirectStage.TRACK);
 
-        shortUrl.setTotalClicks(shortUrl.getTotalClicks() + 1);
-        shortUrlRepository.save(shortUrl);
+        clickCounterService.increment(shortCode);
+        timing.endStage(RedirectStage.COUNT);
+        timing.finish(RedirectOutcome.HIT);
 
-        return shortUrl.getOriginalUrl();
+        return target.getOriginalUrl();
     }
 
     @Override
@@ -103,11 +203,27 @@ public class UrlServiceImpl implements UrlService {
     }
 
     @Override
-    public List<UrlResponse> getUserUrls(String userId) {
-        List<ShortUrl> urls = shortUrlRepository.findByUserId(userId);
-        return urls.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    public UrlPageResponse getUserUrls(String userId, UrlListQuery query) {
+        if (query.getLimit() < 1 || query.getLimit() > UrlListQuery.MAX_LIMIT) {
+            throw new BadRequestException("'limit' must be between 1 and " + UrlListQuery.MAX_LIMIT);
+        }
+        if (query.getCreatedFrom() != null && query.getCreatedTo() != null
+                && !query.getCreatedFrom().isBefore(query.getCreatedTo())) {
+            throw new BadRequestException("'createdFrom' must be before 'createdTo'");
+        }
+
+        // One extra link tells whether another page follows
+        List<ShortUrl> urls = shortUrlRepository.findPage(userId, query, LocalDateTime.now(), query.getLimit() + 1);
+        String nextCursor = null;
+        if (urls.size() > query.getLimit()) {
+            urls = urls.subList(0, query.getLimit());
+            ShortUrl last = urls.get(urls.size() - 1);
+            nextCursor = new UrlCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return UrlPageResponse.builder()
+                .items(urls.stream().map(this::mapToResponse).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .build();
     }
 
     @Override
@@ -130,7 +246,11 @@ public class UrlServiceImpl implements UrlService {
             shortUrl.setActive(request.getActive());
         }
 
-        shortUrlRepository.save(shortUrl);
+        shortUrl.setUpdatedAt(LocalDateTime.now());
+
+        // A full save would overwrite clicks counted since the read
+        shortUrlRepository.updateDetails(shortUrl);
+        redirectCacheService.invalidate(shortCode);
 
         return mapToResponse(shortUrl);
     }
@@ -146,41 +266,51 @@ public class UrlServiceImpl implements UrlService {
         }
 
         shortUrlRepository.delete(shortUrl);
+        redirectCacheService.invalidate(shortCode);
+        shortCodeFilterService.recordDeletion(shortCode);
+    }
+
+    /**
+     * Ids and timestamps are set here because bulk inserts neither report generated ids back
+     * nor count documents with an id as new for auditing. A {@code null} short code is generated.
+     */
+    private static ShortUrl newShortUrl(CreateUrlRequest request, String shortCode, String userId, LocalDateTime now) {
+        return ShortUrl.builder()
+                .id(new ObjectId().toHexString())
+                .shortCode(shortCode)
+                .originalUrl(request.getOriginalUrl())
+                .userId(userId)
+                .expiresAt(request.getExpiresAt())
+                .totalClicks(0L)
+                .createdAt(now)
+                .updatedAt(now)
+                .active(true)
+                .build();
     }
 
     private String generateUniqueShortCode() {
+        if (shortCodeGeneratorService.generatesUniqueCodes()) {
+            return shortCodeGeneratorService.generateShortCode();
+        }
+
         String shortCode;
         do {
             shortCode = shortCodeGeneratorService.generateShortCode();
-        } while (shortUrlRepository.existsByShortCode(shortCode));
+        } while (shortCodeFilterService.mightExist(shortCode) && shortUrlRepository.existsByShortCode(shortCode));
         return shortCode;
     }
 
-    private void trackClick(ShortUrl shortUrl, HttpServletRequest request) {
-        String ipAddress = getClientIp(request);
-        String referrer = getReferrer(request);
-        String userAgent = request.getHeader("User-Agent");
-
-        Map<String, String> geoData = geoLocationUtil.getGeoLocation(ipAddress);
-        Map<String, String> userAgentData = userAgentService.parseUserAgent(userAgent);
-
-        ClickEvent clickEvent = ClickEvent.builder()
-                .shortCode(shortUrl.getShortCode())
-                .ipAddress(ipAddress)
-                .country(geoData.get("country"))
-                .region(geoData.get("region"))
-                .city(geoData.get("city"))
-                .referrer(referrer)
-                .userAgent(userAgent)
-                .deviceType(userAgentData.get("deviceType"))
-                .browser(userAgentData.get("browser"))
-                .operatingSystem(userAgentData.get("operatingSystem"))
+    private void trackClick(String shortCode, HttpServletRequest request) {
+        clickIngestionService.enqueue(RawClick.builder()
+                .shortCode(shortCode)
+                .ipAddress(getClientIp(request))
+                .referrer(getReferrer(request))
+                .userAgent(request.getHeader("User-Agent"))
                 .utmSource(request.getParameter("utm_source"))
                 .utmMedium(request.getParameter("utm_medium"))
                 .utmCampaign(request.getParameter("utm_campaign"))
-                .build();
-
-        clickEventRepository.save(clickEvent);
+                .clickedAt(LocalDateTime.now())
+                .build());
     }
 
     private String getClientIp(HttpServletRequest request) {
@@ -194,7 +324,7 @@ public class UrlServiceImpl implements UrlService {
         return ip;
     }
 
-    private String getReferrer(HttpServletRequest request) {
+    String getReferrer(HttpServletRequest request) {
         String referrer = request.getHeader("Referer");
         if (referrer == null || referrer.isEmpty()) {
             return "direct";
@@ -206,19 +336,59 @@ public class UrlServiceImpl implements UrlService {
         if (referrer.contains("google") || referrer.contains("bing") || referrer.contains("yahoo")) {
             return "search";
         }
-        return referrer;
+        // The full URL carries paths and query strings, which would make every click distinct
+        return referrerHost(referrer);
+    }
+
+    /**
+     * Lower-cased host of {@code url} without a leading {@code www.}, or {@code "other"} when
+     * there is none.
+     */
+    static String referrerHost(String url) {
+        int scheme = url.indexOf("://");
+        int start = scheme >= 0 ? scheme + 3 : 0;
+        int end = start;
+        while (end < url.length() && "/?#".indexOf(url.charAt(end)) < 0) {
+            end++;
+        }
+        int userInfo = url.lastIndexOf('@', end - 1);
+        if (userInfo >= start) {
+            start = userInfo + 1;
+        }
+        int port = url.lastIndexOf(':', end - 1);
+        if (port >= start && url.indexOf(']', port) < 0) {
+            end = port;
+        }
+        if (url.startsWith("www.", start) || url.startsWith("WWW.", start)) {
+            start += 4;
+        }
+        return start < end ? url.substring(start, end).toLowerCase(Locale.ROOT) : "other";
     }
 
-    private UrlResponse mapToResponse(ShortUrl shortUrl) {
+    private long getTotalClicks(ShortUrl shortUrl) {
+        long stored = shortUrl.getTotalClicks() != null ? shortUrl.getTotalClicks() : 0L;
+        return stored + clickCounterService.getPendingClicks(shortUrl.getShortCode());
+    }
+
+    UrlResponse mapToResponse(ShortUrl shortUrl) {
         return UrlResponse.builder()
                 .id(shortUrl.getId())
                 .shortCode(shortUrl.getShortCode())
                 .shortUrl(baseUrl + "/r/" + shortUrl.getShortCode())
                 .originalUrl(shortUrl.getOriginalUrl())
-                .totalClicks(shortUrl.getTotalClicks())
+                .totalClicks(getTotalClicks(shortUrl))
                 .expiresAt(shortUrl.getExpiresAt())
                 .createdAt(shortUrl.getCreatedAt())
                 .active(shortUrl.isActive())
                 .build();
     }
+
+    /** Stages of {@link #redirect}; geo and user-agent enrichment run later, off the request. */
+    private enum RedirectStage {
+        LOOKUP, EXPIRY, TRACK, COUNT
+    }
+
+    private enum RedirectOutcome {
+        HIT, EXPIRED, INACTIVE, NOT_FOUND
+    }
 }
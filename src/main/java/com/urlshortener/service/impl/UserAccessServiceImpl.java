@@ -0,0 +1,177 @@
+package com.urlshortener.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.urlshortener.config.AuthConfig;
+import com.urlshortener.config.JwtConfig;
+import com.urlshortener.entity.User;
+import com.urlshortener.exception.ResourceNotFoundException;
+import com.urlshortener.security.JwtPrincipalCache;
+import com.urlshortener.service.UserAccessService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Keeps, in memory, when each user disabled within the last token lifetime was disabled. Tokens
+ * issued up to that second are refused; older revocations are forgotten, as every token they
+ * cover has expired. Other nodes' revocations are read from the {@code updatedAt} of disabled
+ * users, so no request has to consult the database.
+ *
+ * <p>The same background thread grants {@code ROLE_ADMIN} to {@code app.auth.admin-usernames}
+ * once MongoDB answers. Taking a name off the list does not demote the user.
+ */
+@Slf4j
+@Service
+public class UserAccessServiceImpl implements UserAccessService {
+
+    private static final String ADMIN_ROLE = "ROLE_ADMIN";
+
+    private final MongoTemplate mongoTemplate;
+    private final JwtPrincipalCache jwtPrincipalCache;
+    private final Duration syncInterval;
+    private final List<String> adminUsernames;
+    private final Cache<String, Instant> disabledAt;
+    private volatile Instant syncedFrom;
+    private boolean adminsGranted;
+    private Thread syncWorker;
+
+    public UserAccessServiceImpl(
+            MongoTemplate mongoTemplate,
+            JwtPrincipalCache jwtPrincipalCache,
+            JwtConfig jwtConfig,
+            AuthConfig authConfig
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.jwtPrincipalCache = jwtPrincipalCache;
+        this.syncInterval = jwtConfig.getRevocationSyncInterval();
+        this.adminUsernames = List.copyOf(authConfig.getAdminUsernames());
+        Duration tokenLifetime = Duration.ofMillis(jwtConfig.getExpiration());
+        this.disabledAt = Caffeine.newBuilder()
+                .expireAfterWrite(tokenLifetime)
+                .build();
+        this.syncedFrom = Instant.now().minus(tokenLifetime);
+    }
+
+    @Override
+    public void setEnabled(String username, boolean enabled) {
+        LocalDateTime now = LocalDateTime.now();
+        long matched = mongoTemplate.updateFirst(
+                Query.query(Criteria.where("username").is(username)),
+                new Update().set("enabled", enabled).set("updatedAt", now),
+                User.class).getMatchedCount();
+        if (matched == 0) {
+            throw new ResourceNotFoundException("User not found: " + username);
+        }
+        if (!enabled) {
+            revoke(username, now.atZone(ZoneId.systemDefault()).toInstant());
+        }
+    }
+
+    @Override
+    public boolean isRevoked(String username, Instant issuedAt) {
+        Instant revokedAt = disabledAt.getIfPresent(username);
+        // Token times have whole seconds, so a token from the second of revocation is refused too
+        return revokedAt != null && !issuedAt.isAfter(revokedAt.truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    /**
+     * Polls for users disabled on other nodes on a daemon thread, so a query waiting on an
+     * unreachable database never holds up shutdown.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    void startSync() {
+        syncWorker = new CustomizableThreadFactory("token-revocations-").newThread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                if (!adminsGranted) {
+                    adminsGranted = grantAdmins();
+                }
+                sync();
+                try {
+                    Thread.sleep(syncInterval.toMillis());
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        });
+        syncWorker.setDaemon(true);
+        syncWorker.start();
+    }
+
+    @PreDestroy
+    void stopSync() {
+        if (syncWorker != null) {
+            syncWorker.interrupt();
+        }
+    }
+
+    /**
+     * Picks up users disabled on other nodes. Each pass overlaps the previous one by an
+     * interval, allowing for clock skew between nodes; seeing a user twice is harmless.
+     */
+    void sync() {
+        Instant start = Instant.now();
+        try {
+            Query query = Query.query(Criteria.where("enabled").is(false)
+                    .and("updatedAt").gte(LocalDateTime.ofInstant(syncedFrom, ZoneId.systemDefault())));
+            query.fields().include("username", "updatedAt");
+            for (User user : mongoTemplate.find(query, User.class)) {
+                revoke(user.getUsername(), user.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant());
+            }
+            syncedFrom = start.minus(syncInterval);
+        } catch (Exception e) {
+            log.warn("Revoked token sync failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Grants {@code ROLE_ADMIN} to the configured admins that do not have it yet. Their role
+     * reaches their tokens at their next login. Returns whether the update went through.
+     */
+    boolean grantAdmins() {
+        if (adminUsernames.isEmpty()) {
+            return true;
+        }
+        try {
+            long granted = mongoTemplate.updateMulti(
+                    Query.query(Criteria.where("username").in(adminUsernames).and("role").ne(ADMIN_ROLE)),
+                    new Update().set("role", ADMIN_ROLE).set("updatedAt", LocalDateTime.now()),
+                    User.class).getModifiedCount();
+            long admins = mongoTemplate.count(
+                    Query.query(Criteria.where("username").in(adminUsernames).and("role").is(ADMIN_ROLE)),
+                    User.class);
+            if (granted > 0) {
+                log.info("Granted {} to {} configured users", ADMIN_ROLE, granted);
+            }
+            if (admins < adminUsernames.size()) {
+                log.warn("{} of {} configured admin usernames are not registered",
+                        adminUsernames.size() - admins, adminUsernames.size());
+            }
+            return true;
+        } catch (Exception e) {
+            log.warn("Granting configured admins failed, retrying: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private void revoke(String username, Instant at) {
+        Instant latest = disabledAt.asMap().merge(username, at, (known, seen) -> seen.isAfter(known) ? seen : known);
+        if (latest == at) {
+            jwtPrincipalCache.invalidateUser(username);
+        }
+    }
+}
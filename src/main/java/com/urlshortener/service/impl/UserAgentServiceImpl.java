@@ -11,6 +11,7 @@ import java.util.Map;
 @Service
 public class UserAgentServiceImpl implements UserAgentService {
 
+    // Cache hits are served concurrently; only misses serialise on the analyzer's own monitor
     private final UserAgentAnalyzer userAgentAnalyzer;
 
     public UserAgentServiceImpl() {
@@ -0,0 +1,84 @@
+package com.urlshortener.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads RFC 4180 rows one at a time: quoted fields may hold commas, doubled quotes and line
+ * breaks, and rows may end with LF or CRLF. Only the current row is held in memory.
+ */
+public final class CsvReader {
+
+    private final Reader in;
+    private int peeked = -2;
+
+    /**
+     * {@code in} should be buffered; it is read one character at a time.
+     */
+    public CsvReader(Reader in) {
+        this.in = in;
+    }
+
+    /**
+     * Returns the next row, or {@code null} at the end of the input.
+     */
+    public List<String> readRow() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> row = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted field");
+                }
+                if (c == '"') {
+                    if (peek() == '"') {
+                        read();
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                row.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                break;
+            } else if (c == '\r' && peek() == '\n') {
+                read();
+                break;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+        row.add(field.toString());
+        return row;
+    }
+
+    private int read() throws IOException {
+        if (peeked != -2) {
+            int c = peeked;
+            peeked = -2;
+            return c;
+        }
+        return in.read();
+    }
+
+    private int peek() throws IOException {
+        if (peeked == -2) {
+            peeked = in.read();
+        }
+        return peeked;
+    }
+}
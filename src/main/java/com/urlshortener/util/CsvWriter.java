@@ -0,0 +1,78 @@
+package com.urlshortener.util;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes RFC 4180 rows: fields holding a comma, quote or line break are quoted, with quotes
+ * doubled, and rows end with CRLF. {@code null} fields are written empty. Does not buffer or
+ * close the underlying writer.
+ *
+ * <p>With {@code escapeFormulas}, a field starting with {@code = + - @}, tab or carriage return
+ * is prefixed with {@code '}, so a spreadsheet opening the file shows it as text instead of
+ * evaluating it. Use it for files holding values taken from visitors.
+ */
+public final class CsvWriter {
+
+    private final Writer out;
+    private final boolean escapeFormulas;
+
+    public CsvWriter(Writer out) {
+        this(out, false);
+    }
+
+    public CsvWriter(Writer out, boolean escapeFormulas) {
+        this.out = out;
+        this.escapeFormulas = escapeFormulas;
+    }
+
+    public void writeRow(String... fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            writeField(fields[i]);
+        }
+        out.write("\r\n");
+    }
+
+    private void writeField(String field) throws IOException {
+        if (field == null || field.isEmpty()) {
+            return;
+        }
+        if (escapeFormulas && isFormula(field)) {
+            field = "'" + field;
+        }
+        if (!needsQuotes(field)) {
+            out.write(field);
+            return;
+        }
+        out.write('"');
+        int start = 0;
+        for (int i = 0; i < field.length(); i++) {
+            if (field.charAt(i) == '"') {
+                out.write(field, start, i + 1 - start);
+                out.write('"');
+                start = i + 1;
+            }
+        }
+        out.write(field, start, field.length() - start);
+        out.write('"');
+    }
+
+    private static boolean isFormula(String field) {
+        char first = field.charAt(0);
+        return first == '=' || first == '+' || first == '-' || first == '@'
+                || first == '\t' || first == '\r';
+    }
+
+    private static boolean needsQuotes(String field) {
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,68 @@
+package com.urlshortener.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Counts occurrences of string values in one pass. Each distinct value is assigned a dense
+ * code once and counted in a primitive array, so memory grows with the number of distinct
+ * values, not the number of occurrences. Not thread-safe.
+ */
+public final class DictionaryCounter {
+
+    private final HashMap<String, Integer> codes = new HashMap<>();
+    private String[] values = new String[16];
+    private long[] counts = new long[16];
+    private String lastValue;
+    private int lastCode;
+
+    /**
+     * Counts one occurrence of {@code value}; {@code null} and empty values are ignored.
+     */
+    public void add(String value) {
+        add(value, 1);
+    }
+
+    /**
+     * Counts {@code count} occurrences of {@code value}; {@code null} and empty values are ignored.
+     */
+    public void add(String value, long count) {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        // Consecutive clicks often share values (same campaign, same browser)
+        if (!value.equals(lastValue)) {
+            lastCode = codeOf(value);
+            lastValue = value;
+        }
+        counts[lastCode] += count;
+    }
+
+    public int distinctValues() {
+        return codes.size();
+    }
+
+    public Map<String, Long> toMap() {
+        Map<String, Long> result = new HashMap<>(codes.size() * 2);
+        for (int code = 0; code < codes.size(); code++) {
+            result.put(values[code], counts[code]);
+        }
+        return result;
+    }
+
+    private int codeOf(String value) {
+        Integer code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+        int next = codes.size();
+        if (next == counts.length) {
+            values = Arrays.copyOf(values, next * 2);
+            counts = Arrays.copyOf(counts, next * 2);
+        }
+        codes.put(value, next);
+        values[next] = value;
+        return next;
+    }
+}
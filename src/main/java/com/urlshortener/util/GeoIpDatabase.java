@@ -0,0 +1,388 @@
+package com.urlshortener.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable IP-range to location table answering lookups by binary search over sorted primitive arrays.
+ *
+ * <p>The source is a CSV file with one range per line; which columns hold the range bounds and the
+ * country, region and city is configurable. Bounds may be IPv4 or IPv6 literals. Distinct locations
+ * are stored once and returned as shared read-only maps, so a lookup allocates nothing for IPv4.
+ */
+public final class GeoIpDatabase {
+
+    private static final long SIGN_BIT = 0x8000000000000000L;
+
+    // IPv4 bounds are stored with the sign bit flipped so that signed comparison orders them as unsigned.
+    private final int[] v4Start;
+    private final int[] v4End;
+    private final int[] v4Location;
+
+    // IPv6 bounds are split into high and low halves, each with the sign bit flipped.
+    private final long[] v6StartHi;
+    private final long[] v6StartLo;
+    private final long[] v6EndHi;
+    private final long[] v6EndLo;
+    private final int[] v6Location;
+
+    private final List<Map<String, String>> locations;
+
+    private GeoIpDatabase(Builder builder) {
+        int v4Count = builder.v4Count;
+        Integer[] v4Order = sortedOrder(v4Count, (a, b) -> Integer.compare(builder.v4Start[a], builder.v4Start[b]));
+        this.v4Start = new int[v4Count];
+        this.v4End = new int[v4Count];
+        this.v4Location = new int[v4Count];
+        for (int i = 0; i < v4Count; i++) {
+            int source = v4Order[i];
+            v4Start[i] = builder.v4Start[source];
+            v4End[i] = builder.v4End[source];
+            v4Location[i] = builder.v4Location[source];
+        }
+
+        int v6Count = builder.v6Count;
+        Integer[] v6Order = sortedOrder(v6Count, (a, b) -> compare128(
+                builder.v6StartHi[a], builder.v6StartLo[a], builder.v6StartHi[b], builder.v6StartLo[b]));
+        this.v6StartHi = new long[v6Count];
+        this.v6StartLo = new long[v6Count];
+        this.v6EndHi = new long[v6Count];
+        this.v6EndLo = new long[v6Count];
+        this.v6Location = new int[v6Count];
+        for (int i = 0; i < v6Count; i++) {
+            int source = v6Order[i];
+            v6StartHi[i] = builder.v6StartHi[source];
+            v6StartLo[i] = builder.v6StartLo[source];
+            v6EndHi[i] = builder.v6EndHi[source];
+            v6EndLo[i] = builder.v6EndLo[source];
+            v6Location[i] = builder.v6Location[source];
+        }
+
+        this.locations = List.copyOf(builder.locations);
+    }
+
+    /**
+     * Loads a CSV dataset. Blank lines, lines starting with {@code #} and lines whose range columns
+     * are not IP literals (such as a header row) are skipped.
+     */
+    public static GeoIpDatabase load(Path path, Columns columns) throws IOException {
+        Builder builder = new Builder();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                builder.add(splitCsv(line), columns);
+            }
+        }
+        return new GeoIpDatabase(builder);
+    }
+
+    /**
+     * Returns the location of the range containing {@code ipAddress}, or {@code null} when the
+     * address is not a valid IP literal or falls outside every range.
+     */
+    public Map<String, String> lookup(String ipAddress) {
+        long v4 = parseIpv4(ipAddress);
+        if (v4 >= 0) {
+            return lookupV4((int) v4);
+        }
+        long[] v6 = parseIpv6(ipAddress);
+        return v6 != null ? lookupV6(v6[0], v6[1]) : null;
+    }
+
+    public int size() {
+        return v4Start.length + v6StartHi.length;
+    }
+
+    private Map<String, String> lookupV4(int ip) {
+        int key = ip ^ Integer.MIN_VALUE;
+        int low = 0;
+        int high = v4Start.length - 1;
+        int candidate = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (v4Start[mid] <= key) {
+                candidate = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return candidate >= 0 && key <= v4End[candidate] ? locations.get(v4Location[candidate]) : null;
+    }
+
+    private Map<String, String> lookupV6(long hi, long lo) {
+        long keyHi = hi ^ SIGN_BIT;
+        long keyLo = lo ^ SIGN_BIT;
+        int low = 0;
+        int high = v6StartHi.length - 1;
+        int candidate = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (compare128(v6StartHi[mid], v6StartLo[mid], keyHi, keyLo) <= 0) {
+                candidate = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return candidate >= 0 && compare128(keyHi, keyLo, v6EndHi[candidate], v6EndLo[candidate]) <= 0
+                ? locations.get(v6Location[candidate])
+                : null;
+    }
+
+    private static int compare128(long aHi, long aLo, long bHi, long bLo) {
+        int cmp = Long.compare(aHi, bHi);
+        return cmp != 0 ? cmp : Long.compare(aLo, bLo);
+    }
+
+    private static Integer[] sortedOrder(int count, Comparator<Integer> comparator) {
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, comparator);
+        return order;
+    }
+
+    /**
+     * Parses a dotted-quad IPv4 literal without allocating. Returns the address as an unsigned
+     * value, or -1 when {@code ip} is not a valid IPv4 literal.
+     */
+    static long parseIpv4(String ip) {
+        if (ip == null) {
+            return -1;
+        }
+        int length = ip.length();
+        if (length < 7 || length > 15) {
+            return -1;
+        }
+        long result = 0;
+        int octet = -1;
+        int dots = 0;
+        for (int i = 0; i < length; i++) {
+            char c = ip.charAt(i);
+            if (c >= '0' && c <= '9') {
+                octet = (octet < 0 ? 0 : octet * 10) + (c - '0');
+                if (octet > 255) {
+                    return -1;
+                }
+            } else if (c == '.' && octet >= 0 && dots < 3) {
+                result = (result << 8) | octet;
+                octet = -1;
+                dots++;
+            } else {
+                return -1;
+            }
+        }
+        if (dots != 3 || octet < 0) {
+            return -1;
+        }
+        return (result << 8) | octet;
+    }
+
+    /**
+     * Parses an IPv6 literal, including {@code ::} compression, an embedded IPv4 tail and a zone
+     * suffix. Returns the high and low 64 bits, or {@code null} when {@code ip} is not valid.
+     */
+    static long[] parseIpv6(String ip) {
+        if (ip == null || ip.indexOf(':') < 0) {
+            return null;
+        }
+        int zone = ip.indexOf('%');
+        String address = zone >= 0 ? ip.substring(0, zone) : ip;
+        if (address.startsWith("[") && address.endsWith("]")) {
+            address = address.substring(1, address.length() - 1);
+        }
+
+        int[] groups = new int[8];
+        int count = 0;
+        int compressAt = -1;
+        int i = 0;
+        int length = address.length();
+        if (address.startsWith("::")) {
+            compressAt = 0;
+            i = 2;
+        }
+        while (i < length) {
+            int end = address.indexOf(':', i);
+            if (end < 0) {
+                end = length;
+            }
+            String part = address.substring(i, end);
+            if (part.indexOf('.') >= 0) {
+                long v4 = parseIpv4(part);
+                if (v4 < 0 || end != length || count > 6) {
+                    return null;
+                }
+                groups[count++] = (int) (v4 >>> 16);
+                groups[count++] = (int) (v4 & 0xFFFF);
+                break;
+            }
+            if (part.isEmpty() || part.length() > 4 || count == 8) {
+                return null;
+            }
+            int value = 0;
+            for (int j = 0; j < part.length(); j++) {
+                int digit = Character.digit(part.charAt(j), 16);
+                if (digit < 0) {
+                    return null;
+                }
+                value = (value << 4) | digit;
+            }
+            groups[count++] = value;
+            if (end == length) {
+                break;
+            }
+            if (end + 1 < length && address.charAt(end + 1) == ':') {
+                if (compressAt >= 0) {
+                    return null;
+                }
+                compressAt = count;
+                i = end + 2;
+            } else {
+                i = end + 1;
+                if (i == length) {
+                    return null;
+                }
+            }
+        }
+
+        if (compressAt >= 0) {
+            int missing = 8 - count;
+            if (missing < 1) {
+                return null;
+            }
+            System.arraycopy(groups, compressAt, groups, compressAt + missing, count - compressAt);
+            Arrays.fill(groups, compressAt, compressAt + missing, 0);
+        } else if (count != 8) {
+            return null;
+        }
+
+        long hi = 0;
+        long lo = 0;
+        for (int g = 0; g < 4; g++) {
+            hi = (hi << 16) | groups[g];
+            lo = (lo << 16) | groups[g + 4];
+        }
+        return new long[]{hi, lo};
+    }
+
+    private static String[] splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().trim());
+        return fields.toArray(new String[0]);
+    }
+
+    /**
+     * Zero-based positions of the range and location fields in each CSV row.
+     */
+    public record Columns(int start, int end, int country, int region, int city) {
+    }
+
+    private static final class Builder {
+        private int v4Count;
+        private int[] v4Start = new int[1024];
+        private int[] v4End = new int[1024];
+        private int[] v4Location = new int[1024];
+
+        private int v6Count;
+        private long[] v6StartHi = new long[256];
+        private long[] v6StartLo = new long[256];
+        private long[] v6EndHi = new long[256];
+        private long[] v6EndLo = new long[256];
+        private int[] v6Location = new int[256];
+
+        private final List<Map<String, String>> locations = new ArrayList<>();
+        private final Map<Map<String, String>, Integer> locationIds = new HashMap<>();
+
+        private void add(String[] fields, Columns columns) {
+            int maxColumn = Math.max(Math.max(columns.start(), columns.end()),
+                    Math.max(columns.country(), Math.max(columns.region(), columns.city())));
+            if (fields.length <= maxColumn) {
+                return;
+            }
+
+            long start4 = parseIpv4(fields[columns.start()]);
+            long end4 = parseIpv4(fields[columns.end()]);
+            if (start4 >= 0 && end4 >= 0) {
+                if (v4Count == v4Start.length) {
+                    v4Start = Arrays.copyOf(v4Start, v4Count * 2);
+                    v4End = Arrays.copyOf(v4End, v4Count * 2);
+                    v4Location = Arrays.copyOf(v4Location, v4Count * 2);
+                }
+                v4Start[v4Count] = (int) start4 ^ Integer.MIN_VALUE;
+                v4End[v4Count] = (int) end4 ^ Integer.MIN_VALUE;
+                v4Location[v4Count] = locationId(fields, columns);
+                v4Count++;
+                return;
+            }
+
+            long[] start6 = parseIpv6(fields[columns.start()]);
+            long[] end6 = parseIpv6(fields[columns.end()]);
+            if (start6 != null && end6 != null) {
+                if (v6Count == v6StartHi.length) {
+                    v6StartHi = Arrays.copyOf(v6StartHi, v6Count * 2);
+                    v6StartLo = Arrays.copyOf(v6StartLo, v6Count * 2);
+                    v6EndHi = Arrays.copyOf(v6EndHi, v6Count * 2);
+                    v6EndLo = Arrays.copyOf(v6EndLo, v6Count * 2);
+                    v6Location = Arrays.copyOf(v6Location, v6Count * 2);
+                }
+                v6StartHi[v6Count] = start6[0] ^ SIGN_BIT;
+                v6StartLo[v6Count] = start6[1] ^ SIGN_BIT;
+                v6EndHi[v6Count] = end6[0] ^ SIGN_BIT;
+                v6EndLo[v6Count] = end6[1] ^ SIGN_BIT;
+                v6Location[v6Count] = locationId(fields, columns);
+                v6Count++;
+            }
+        }
+
+        private int locationId(String[] fields, Columns columns) {
+            Map<String, String> location = Map.of(
+                    "country", valueOrUnknown(fields[columns.country()]),
+                    "region", valueOrUnknown(fields[columns.region()]),
+                    "city", valueOrUnknown(fields[columns.city()]));
+            return locationIds.computeIfAbsent(location, key -> {
+                locations.add(key);
+                return locations.size() - 1;
+            });
+        }
+
+        private static String valueOrUnknown(String value) {
+            return value == null || value.isEmpty() || "-".equals(value) ? "Unknown" : value;
+        }
+    }
+}
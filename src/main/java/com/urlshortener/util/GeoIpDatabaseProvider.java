@@ -0,0 +1,78 @@
+package com.urlshortener.util;
+
+import com.urlshortener.config.GeoConfig;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Holds the current {@link GeoIpDatabase} and swaps in a freshly loaded copy whenever the
+ * configured file changes. Lookups keep using the previous copy until the new one is ready.
+ */
+@Slf4j
+@Component
+public class GeoIpDatabaseProvider {
+
+    private final GeoConfig.Database config;
+    private volatile GeoIpDatabase database;
+    private FileTime loadedModifiedTime;
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    public GeoIpDatabaseProvider(GeoConfig geoConfig) {
+        this.config = geoConfig.getDatabase();
+    }
+
+    /**
+     * Returns the loaded database, or {@code null} when none is configured or loading failed.
+     */
+    public GeoIpDatabase getDatabase() {
+        return database;
+    }
+
+    @PostConstruct
+    void init() {
+        reloadIfChanged();
+    }
+
+    @Scheduled(fixedDelayString = "${app.geo.database.reload-interval:60s}")
+    public void reloadIfChanged() {
+        if (config.getPath() == null || config.getPath().isBlank()) {
+            return;
+        }
+
+        reloadLock.lock();
+        try {
+            reload();
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private void reload() {
+        Path path = Path.of(config.getPath());
+        try {
+            FileTime modifiedTime = Files.getLastModifiedTime(path);
+            if (modifiedTime.equals(loadedModifiedTime)) {
+                return;
+            }
+
+            long start = System.nanoTime();
+            GeoIpDatabase loaded = GeoIpDatabase.load(path, new GeoIpDatabase.Columns(
+                    config.getStartColumn(), config.getEndColumn(),
+                    config.getCountryColumn(), config.getRegionColumn(), config.getCityColumn()));
+            database = loaded;
+            loadedModifiedTime = modifiedTime;
+            log.info("Loaded {} IP ranges from {} in {} ms",
+                    loaded.size(), path, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to load geo database from {}, keeping the previous one", path, e);
+        }
+    }
+}
@@ -1,43 +1,97 @@
 package com.urlshortener.util;
 
+import com.urlshortener.config.GeoConfig;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Semaphore;
 
 @Slf4j
 @Component
 public class GeoLocationUtil {
 
+    private static final Map<String, String> UNKNOWN = Map.of(
+            "country", "Unknown",
+            "region", "Unknown",
+            "city", "Unknown");
+
     private final RestTemplate restTemplate;
+    private final GeoIpDatabaseProvider geoIpDatabaseProvider;
+    private final GeoLookupCache geoLookupCache;
+    private final GeoConfig geoConfig;
+    private final Semaphore remoteLookupPermits;
 
-    public GeoLocationUtil(RestTemplate restTemplate) {
+    public GeoLocationUtil(
+            RestTemplate restTemplate,
+            GeoIpDatabaseProvider geoIpDatabaseProvider,
+            GeoLookupCache geoLookupCache,
+            GeoConfig geoConfig
+    ) {
         this.restTemplate = restTemplate;
+        this.geoIpDatabaseProvider = geoIpDatabaseProvider;
+        this.geoLookupCache = geoLookupCache;
+        this.geoConfig = geoConfig;
+        this.remoteLookupPermits = new Semaphore(geoConfig.getRemoteMaxConcurrency());
     }
 
     public Map<String, String> getGeoLocation(String ipAddress) {
-        Map<String, String> geoData = new HashMap<>();
+        if (ipAddress == null || ipAddress.equals("127.0.0.1") || ipAddress.startsWith("192.168")
+                || ipAddress.equals("0:0:0:0:0:0:0:1")) {
+            Map<String, String> geoData = new HashMap<>();
+            geoData.put("country", "Local");
+            geoData.put("region", "Local");
+            geoData.put("city", "Local");
+            return geoData;
+        }
+
+        // Prefer the local database; it answers in well under a microsecond
+        GeoIpDatabase database = geoIpDatabaseProvider.getDatabase();
+        if (database != null) {
+            Map<String, String> location = database.lookup(ipAddress);
+            return location != null ? location : UNKNOWN;
+        }
+
+        if (!geoConfig.isRemoteLookupEnabled()) {
+            return UNKNOWN;
+        }
+
+        Map<String, String> location = geoLookupCache.get(ipAddress, this::getRemoteGeoLocation);
+        return location != null ? location : UNKNOWN;
+    }
 
+    /**
+     * Returns {@code null} when the lookup is skipped, so that a burst of saturation is not
+     * cached as the address being unknown.
+     */
+    private Map<String, String> getRemoteGeoLocation(String ipAddress) {
+        // Thread pools used to cap outbound calls implicitly; virtual threads do not
+        if (!remoteLookupPermits.tryAcquire()) {
+            log.debug("Remote geolocation saturated, skipping lookup for IP: {}", ipAddress);
+            return null;
+        }
         try {
-            if (ipAddress == null || ipAddress.equals("127.0.0.1") || ipAddress.startsWith("192.168")
-                    || ipAddress.equals("0:0:0:0:0:0:0:1")) {
-                geoData.put("country", "Local");
-                geoData.put("region", "Local");
-                geoData.put("city", "Local");
-                return geoData;
-            }
+            return fetchRemoteGeoLocation(ipAddress);
+        } finally {
+            remoteLookupPermits.release();
+        }
+    }
 
+    private Map<String, String> fetchRemoteGeoLocation(String ipAddress) {
+        Map<String, String> geoData = new HashMap<>();
+
+        try {
             // Use ip-api.com for geolocation
             String url = "http://ip-api.com/json/" + ipAddress;
             @SuppressWarnings("unchecked")
             Map<String, Object> response = restTemplate.getForObject(url, Map.class);
 
             if (response != null && "success".equals(response.get("status"))) {
-                geoData.put("country", (String) response.getOrDefault("country", "Unknown"));
-                geoData.put("region", (String) response.getOrDefault("regionName", "Unknown"));
-                geoData.put("city", (String) response.getOrDefault("city", "Unknown"));
+                geoData.put("country", valueOrUnknown(response.get("country")));
+                geoData.put("region", valueOrUnknown(response.get("regionName")));
+                geoData.put("city", valueOrUnknown(response.get("city")));
             } else {
                 geoData.put("country", "Unknown");
                 geoData.put("region", "Unknown");
@@ -53,4 +107,8 @@ public class GeoLocationUtil {
 
         return geoData;
     }
+
+    private static String valueOrUnknown(Object value) {
+        return value instanceof String text && !text.isEmpty() ? text : "Unknown";
+    }
 }
@@ -0,0 +1,109 @@
+package com.urlshortener.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.urlshortener.config.GeoConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Caches geolocation results per IP address and coalesces concurrent misses for the same
+ * address into a single upstream lookup. Unknown results are cached for a shorter time.
+ */
+@Component
+public class GeoLookupCache {
+
+    private final Cache<String, Map<String, String>> results;
+    private final ConcurrentHashMap<String, CompletableFuture<Map<String, String>>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter coalescedCounter;
+
+    public GeoLookupCache(GeoConfig geoConfig, MeterRegistry meterRegistry) {
+        GeoConfig.Cache config = geoConfig.getCache();
+        long ttlNanos = config.getTtl().toNanos();
+        long negativeTtlNanos = config.getNegativeTtl().toNanos();
+
+        this.results = Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfter(new Expiry<String, Map<String, String>>() {
+                    @Override
+                    public long expireAfterCreate(String ip, Map<String, String> location, long currentTime) {
+                        return isUnknown(location) ? negativeTtlNanos : ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String ip, Map<String, String> location, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(ip, location, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String ip, Map<String, String> location, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+
+        this.hitCounter = meterRegistry.counter("geo.cache.requests", "result", "hit");
+        this.missCounter = meterRegistry.counter("geo.cache.requests", "result", "miss");
+        this.coalescedCounter = meterRegistry.counter("geo.cache.requests", "result", "coalesced");
+        meterRegistry.gauge("geo.cache.size", results, cache -> cache.estimatedSize());
+    }
+
+    /**
+     * Returns the cached location for {@code ipAddress}, or runs {@code loader} if there is none.
+     * Callers arriving while a lookup for the same address is running wait for its result
+     * instead of starting their own. A loader returns {@code null} when it did not attempt the
+     * lookup; that is passed on to the callers but not cached, so the next call tries again.
+     */
+    public Map<String, String> get(String ipAddress, Function<String, Map<String, String>> loader) {
+        Map<String, String> cached = results.getIfPresent(ipAddress);
+        if (cached != null) {
+            hitCounter.increment();
+            return cached;
+        }
+
+        CompletableFuture<Map<String, String>> lookup = new CompletableFuture<>();
+        CompletableFuture<Map<String, String>> existing = inFlight.putIfAbsent(ipAddress, lookup);
+        if (existing != null) {
+            coalescedCounter.increment();
+            return existing.join();
+        }
+
+        try {
+            // Another caller may have finished between the cache check and claiming the lookup
+            Map<String, String> location = results.getIfPresent(ipAddress);
+            if (location != null) {
+                hitCounter.increment();
+            } else {
+                missCounter.increment();
+                location = loader.apply(ipAddress);
+                if (location != null) {
+                    location = Map.copyOf(location);
+                    results.put(ipAddress, location);
+                }
+            }
+            lookup.complete(location);
+            return location;
+        } catch (RuntimeException e) {
+            lookup.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(ipAddress, lookup);
+        }
+    }
+
+    private static boolean isUnknown(Map<String, String> location) {
+        return "Unknown".equals(location.get("country"));
+    }
+}
@@ -0,0 +1,160 @@
+package com.urlshortener.util;
+
+import java.util.Arrays;
+
+/**
+ * HyperLogLog sketch estimating the number of distinct strings added, with 2<sup>12</sup>
+ * one-byte registers: 4 KB in memory whatever the cardinality, and a standard error of
+ * {@value #STANDARD_ERROR}. Sketches merge losslessly, so a sketch per day can be combined into
+ * one for any range of days.
+ *
+ * <p>{@link #toBytes} stores the non-zero registers as a list while that is smaller, and the
+ * registers packed at six bits each (3 KB) otherwise. Not thread-safe.
+ */
+public final class HyperLogLog {
+
+    public static final int PRECISION = 12;
+    public static final int REGISTERS = 1 << PRECISION;
+    /** 1.04 / sqrt(registers) */
+    public static final double STANDARD_ERROR = 0.01625;
+
+    private static final byte SPARSE = 0;
+    private static final byte DENSE = 1;
+    private static final int SPARSE_ENTRY_BYTES = 3;
+    private static final int DENSE_BYTES = REGISTERS * 6 / 8;
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+
+    private final byte[] registers;
+
+    public HyperLogLog() {
+        this(new byte[REGISTERS]);
+    }
+
+    private HyperLogLog(byte[] registers) {
+        this.registers = registers;
+    }
+
+    public void add(String value) {
+        long hash = hash(value);
+        int index = (int) (hash >>> (64 - PRECISION));
+        // The guard bit caps the rank at 64 - PRECISION + 1, which fits in six bits
+        int rank = Long.numberOfLeadingZeros((hash << PRECISION) | (1L << (PRECISION - 1))) + 1;
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+        }
+    }
+
+    /**
+     * Folds {@code other} into this sketch, which then estimates the union of both.
+     *
+     * @return whether this sketch changed
+     */
+    public boolean merge(HyperLogLog other) {
+        boolean changed = false;
+        for (int i = 0; i < REGISTERS; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+        if (estimate <= 2.5 * REGISTERS && zeros > 0) {
+            // Linear counting is more accurate while many registers are still empty
+            estimate = REGISTERS * Math.log((double) REGISTERS / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public byte[] toBytes() {
+        int nonZero = 0;
+        for (byte register : registers) {
+            if (register != 0) {
+                nonZero++;
+            }
+        }
+
+        if (nonZero * SPARSE_ENTRY_BYTES < DENSE_BYTES) {
+            byte[] bytes = new byte[1 + nonZero * SPARSE_ENTRY_BYTES];
+            bytes[0] = SPARSE;
+            int offset = 1;
+            for (int i = 0; i < REGISTERS; i++) {
+                if (registers[i] != 0) {
+                    int entry = i << 6 | registers[i];
+                    bytes[offset++] = (byte) (entry >>> 16);
+                    bytes[offset++] = (byte) (entry >>> 8);
+                    bytes[offset++] = (byte) entry;
+                }
+            }
+            return bytes;
+        }
+
+        byte[] bytes = new byte[1 + DENSE_BYTES];
+        bytes[0] = DENSE;
+        // Four six-bit registers per three bytes
+        for (int i = 0, offset = 1; i < REGISTERS; i += 4, offset += 3) {
+            int packed = registers[i] << 18 | registers[i + 1] << 12 | registers[i + 2] << 6 | registers[i + 3];
+            bytes[offset] = (byte) (packed >>> 16);
+            bytes[offset + 1] = (byte) (packed >>> 8);
+            bytes[offset + 2] = (byte) packed;
+        }
+        return bytes;
+    }
+
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        byte[] registers = new byte[REGISTERS];
+        if (bytes[0] == SPARSE && (bytes.length - 1) % SPARSE_ENTRY_BYTES == 0) {
+            for (int offset = 1; offset < bytes.length; offset += SPARSE_ENTRY_BYTES) {
+                int entry = (bytes[offset] & 0xFF) << 16 | (bytes[offset + 1] & 0xFF) << 8 | (bytes[offset + 2] & 0xFF);
+                registers[entry >>> 6] = (byte) (entry & 0x3F);
+            }
+        } else if (bytes[0] == DENSE && bytes.length == 1 + DENSE_BYTES) {
+            for (int i = 0, offset = 1; i < REGISTERS; i += 4, offset += 3) {
+                int packed = (bytes[offset] & 0xFF) << 16 | (bytes[offset + 1] & 0xFF) << 8 | (bytes[offset + 2] & 0xFF);
+                registers[i] = (byte) (packed >>> 18);
+                registers[i + 1] = (byte) (packed >>> 12 & 0x3F);
+                registers[i + 2] = (byte) (packed >>> 6 & 0x3F);
+                registers[i + 3] = (byte) (packed & 0x3F);
+            }
+        } else {
+            throw new IllegalArgumentException("Not a serialized HyperLogLog sketch");
+        }
+        return new HyperLogLog(registers);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof HyperLogLog other && Arrays.equals(registers, other.registers);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(registers);
+    }
+
+    private static long hash(String value) {
+        // FNV-1a over the UTF-16 code units, then a strong finaliser so the high bits are well mixed
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
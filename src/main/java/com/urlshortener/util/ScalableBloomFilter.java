@@ -0,0 +1,168 @@
+package com.urlshortener.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe Bloom filter of strings that grows as elements are added.
+ *
+ * <p>Elements go into the newest slice; once it holds its planned capacity a new slice with twice
+ * the capacity and half the false-positive rate is appended, so the compound false-positive rate
+ * stays below the configured target however many elements are added. Lookups test every slice.
+ * Bits are set with lock-free atomic updates; only appending a slice takes a lock.
+ */
+public final class ScalableBloomFilter {
+
+    private static final int GROWTH_FACTOR = 2;
+    private static final double TIGHTENING_RATIO = 0.5;
+
+    private final double targetFalsePositiveRate;
+    private volatile Slice[] slices;
+    private final LongAdder insertions = new LongAdder();
+
+    public ScalableBloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Invalid Bloom filter sizing");
+        }
+        this.targetFalsePositiveRate = falsePositiveRate;
+        // The slice rates form a geometric series; start low enough that the sum stays within the target.
+        this.slices = new Slice[]{new Slice(expectedInsertions, falsePositiveRate * (1 - TIGHTENING_RATIO))};
+    }
+
+    public void add(String value) {
+        long hash = hash(value);
+        Slice[] current = slices;
+        Slice last = current[current.length - 1];
+        if (last.count.sum() >= last.capacity) {
+            last = grow(current);
+        }
+        last.add(hash);
+        last.count.increment();
+        insertions.increment();
+    }
+
+    /**
+     * Returns {@code false} only if {@code value} was definitely never added.
+     */
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        for (Slice slice : slices) {
+            if (slice.mightContain(hash)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public long insertions() {
+        return insertions.sum();
+    }
+
+    public long sizeInBytes() {
+        long bytes = 0;
+        for (Slice slice : slices) {
+            bytes += slice.bits.length() * (long) Long.BYTES;
+        }
+        return bytes;
+    }
+
+    /**
+     * Probability that a lookup for an absent element returns {@code true}, estimated from the
+     * current fill of each slice.
+     */
+    public double expectedFalsePositiveRate() {
+        double allNegative = 1.0;
+        for (Slice slice : slices) {
+            allNegative *= 1 - slice.expectedFalsePositiveRate();
+        }
+        return 1 - allNegative;
+    }
+
+    public double targetFalsePositiveRate() {
+        return targetFalsePositiveRate;
+    }
+
+    private synchronized Slice grow(Slice[] seen) {
+        Slice[] current = slices;
+        Slice last = current[current.length - 1];
+        if (current != seen || last.count.sum() < last.capacity) {
+            return last;
+        }
+        Slice next = new Slice(last.capacity * GROWTH_FACTOR, last.falsePositiveRate * TIGHTENING_RATIO);
+        Slice[] grown = new Slice[current.length + 1];
+        System.arraycopy(current, 0, grown, 0, current.length);
+        grown[current.length] = next;
+        slices = grown;
+        return next;
+    }
+
+    private static long hash(String value) {
+        // FNV-1a over the UTF-16 code units, then a strong finaliser so both halves are well mixed
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static final class Slice {
+        private final long capacity;
+        private final double falsePositiveRate;
+        private final AtomicLongArray bits;
+        private final long bitCount;
+        private final int hashCount;
+        private final LongAdder count = new LongAdder();
+
+        private Slice(long capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            this.falsePositiveRate = falsePositiveRate;
+            long optimalBits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            int words = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (optimalBits + 63) / 64));
+            this.bits = new AtomicLongArray(words);
+            this.bitCount = words * 64L;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * Math.log(2)));
+        }
+
+        private void add(long hash) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long bit = index(h1, h2, i);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current = bits.get(word);
+                while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                    current = bits.get(word);
+                }
+            }
+        }
+
+        private boolean mightContain(long hash) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long bit = index(h1, h2, i);
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private long index(int h1, int h2, int i) {
+            long combined = h1 + (long) i * h2;
+            return (combined & Long.MAX_VALUE) % bitCount;
+        }
+
+        private double expectedFalsePositiveRate() {
+            double n = count.sum();
+            return Math.pow(1 - Math.exp(-hashCount * n / bitCount), hashCount);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.urlshortener.util;
+
+/**
+ * Maps numeric IDs to fixed-width base62 short codes, optionally passing them through a keyed
+ * bijective permutation first so consecutive IDs do not produce guessable, consecutive codes.
+ *
+ * <p>The permutation is a four-round Feistel network over the smallest even number of bits that
+ * covers the code space, with cycle walking to stay inside it. Because it is a bijection on
+ * {@code [0, 62^length)}, distinct IDs always yield distinct codes.
+ */
+public final class ShortCodeCodec {
+
+    public static final String ALPHABET = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+    private static final int BASE = ALPHABET.length();
+    private static final int ROUNDS = 4;
+
+    private final int length;
+    private final long capacity;
+    private final boolean scramble;
+    private final int halfBits;
+    private final long halfMask;
+    private final long[] roundKeys = new long[ROUNDS];
+
+    public ShortCodeCodec(int length, boolean scramble, long key) {
+        if (length < 1 || length > 10) {
+            throw new IllegalArgumentException("Short code length must be between 1 and 10");
+        }
+        this.length = length;
+        long space = 1;
+        for (int i = 0; i < length; i++) {
+            space *= BASE;
+        }
+        this.capacity = space;
+        this.scramble = scramble;
+
+        int bits = 64 - Long.numberOfLeadingZeros(space - 1);
+        this.halfBits = (bits + 1) / 2;
+        this.halfMask = (1L << halfBits) - 1;
+        long state = key;
+        for (int i = 0; i < ROUNDS; i++) {
+            state = mix(state + 0x9E3779B97F4A7C15L);
+            roundKeys[i] = state;
+        }
+    }
+
+    /**
+     * Number of distinct codes; valid IDs are {@code 0} to {@code capacity() - 1}.
+     */
+    public long capacity() {
+        return capacity;
+    }
+
+    public String encode(long id) {
+        if (id < 0 || id >= capacity) {
+            throw new IllegalArgumentException("ID " + id + " is outside the short code space");
+        }
+        long value = scramble ? permute(id) : id;
+
+        char[] code = new char[length];
+        for (int i = length - 1; i >= 0; i--) {
+            code[i] = ALPHABET.charAt((int) (value % BASE));
+            value /= BASE;
+        }
+        return new String(code);
+    }
+
+    private long permute(long id) {
+        long value = id;
+        do {
+            value = feistel(value);
+        } while (value >= capacity);
+        return value;
+    }
+
+    private long feistel(long value) {
+        long left = value >>> halfBits;
+        long right = value & halfMask;
+        for (long roundKey : roundKeys) {
+            long next = left ^ (mix(right ^ roundKey) & halfMask);
+            left = right;
+            right = next;
+        }
+        return (left << halfBits) | right;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,138 @@
+package com.urlshortener.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving summary of the most frequent strings in a stream, holding at most
+ * {@code capacity} counters however many distinct values arrive.
+ *
+ * <p>An unmonitored value takes over the smallest counter and inherits its count as its error,
+ * so every reported count overestimates the true count by at most its error, and the error is
+ * never more than {@code total / capacity}. Any value occurring more than that many times is
+ * guaranteed to be monitored. Counters sit in a min-heap indexed by value, so each update costs
+ * {@code O(log capacity)}. Thread-safe.
+ */
+public final class SpaceSaving {
+
+    private final int capacity;
+    private final Map<String, Counter> counters;
+    private final Counter[] heap;
+    private int size;
+    private long total;
+
+    public SpaceSaving(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.counters = new HashMap<>();
+        this.heap = new Counter[capacity];
+    }
+
+    public synchronized void add(String value) {
+        total++;
+        Counter counter = counters.get(value);
+        if (counter == null) {
+            if (size < capacity) {
+                counter = new Counter(value, size);
+                heap[size++] = counter;
+                siftUp(counter.index);
+            } else {
+                // Evict the minimum; the newcomer may have occurred up to that many times unseen
+                counter = heap[0];
+                counters.remove(counter.value);
+                counter.value = value;
+                counter.error = counter.count;
+            }
+            counters.put(value, counter);
+        }
+        counter.count++;
+        siftDown(counter.index);
+    }
+
+    public synchronized long total() {
+        return total;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns up to {@code n} monitored values, most frequent first.
+     */
+    public synchronized List<Entry> top(int n) {
+        Counter[] sorted = Arrays.copyOf(heap, size);
+        Arrays.sort(sorted, Comparator.comparingLong((Counter counter) -> counter.count).reversed());
+        int count = Math.min(n, sorted.length);
+        // A value is surely in the top n if even its lower bound beats the next candidate's count
+        long nextCount = count < sorted.length ? sorted[count].count : 0;
+        List<Entry> top = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Counter counter = sorted[i];
+            top.add(new Entry(counter.value, counter.count, counter.error, counter.count - counter.error >= nextCount));
+        }
+        return top;
+    }
+
+    private void siftUp(int index) {
+        Counter counter = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent].count <= counter.count) {
+                break;
+            }
+            place(heap[parent], index);
+            index = parent;
+        }
+        place(counter, index);
+    }
+
+    private void siftDown(int index) {
+        Counter counter = heap[index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && heap[child + 1].count < heap[child].count) {
+                child++;
+            }
+            if (counter.count <= heap[child].count) {
+                break;
+            }
+            place(heap[child], index);
+            index = child;
+        }
+        place(counter, index);
+    }
+
+    private void place(Counter counter, int index) {
+        heap[index] = counter;
+        counter.index = index;
+    }
+
+    private static final class Counter {
+        private String value;
+        private long count;
+        private long error;
+        private int index;
+
+        private Counter(String value, int index) {
+            this.value = value;
+            this.index = index;
+        }
+    }
+
+    /**
+     * A monitored value. Its true count lies in {@code [count - error, count]}; {@code guaranteed}
+     * is set when it is certainly among the top values requested.
+     */
+    public record Entry(String value, long count, long error, boolean guaranteed) {
+    }
+}
@@ -0,0 +1,102 @@
+package com.urlshortener.util;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Latency timers for a request path split into stages, tagged by how the request ended.
+ *
+ * <p>Records {@code <name>} per outcome and {@code <name>.stage} per stage and outcome, so a
+ * slow stage can be traced to the requests it slowed down. A {@link Timing} only reads
+ * {@link System#nanoTime()} while the request runs; timers are created on first use, so only
+ * stage and outcome combinations that actually occur are exported. Histograms are enabled
+ * through {@code management.metrics.distribution}.
+ */
+public final class StageTimers<S extends Enum<S>, O extends Enum<O>> {
+
+    private final MeterRegistry meterRegistry;
+    private final String name;
+    private final String[] stageTags;
+    private final String[] outcomeTags;
+    private final AtomicReferenceArray<Timer> totalTimers;
+    /** Indexed by {@code stage * outcomes + outcome}. */
+    private final AtomicReferenceArray<Timer> stageTimers;
+
+    public StageTimers(MeterRegistry meterRegistry, String name, Class<S> stages, Class<O> outcomes) {
+        this.meterRegistry = meterRegistry;
+        this.name = name;
+        this.stageTags = tagValues(stages);
+        this.outcomeTags = tagValues(outcomes);
+        this.totalTimers = new AtomicReferenceArray<>(outcomeTags.length);
+        this.stageTimers = new AtomicReferenceArray<>(stageTags.length * outcomeTags.length);
+    }
+
+    public Timing start() {
+        return new Timing();
+    }
+
+    private Timer totalTimer(int outcome) {
+        Timer timer = totalTimers.get(outcome);
+        if (timer == null) {
+            // Racing registrations are harmless: the registry hands back the same timer
+            timer = meterRegistry.timer(name, "outcome", outcomeTags[outcome]);
+            totalTimers.set(outcome, timer);
+        }
+        return timer;
+    }
+
+    private Timer stageTimer(int stage, int outcome) {
+        int index = stage * outcomeTags.length + outcome;
+        Timer timer = stageTimers.get(index);
+        if (timer == null) {
+            timer = meterRegistry.timer(name + ".stage", "stage", stageTags[stage], "outcome", outcomeTags[outcome]);
+            stageTimers.set(index, timer);
+        }
+        return timer;
+    }
+
+    private static String[] tagValues(Class<? extends Enum<?>> type) {
+        Enum<?>[] constants = type.getEnumConstants();
+        String[] values = new String[constants.length];
+        for (int i = 0; i < constants.length; i++) {
+            values[i] = constants[i].name().toLowerCase();
+        }
+        return values;
+    }
+
+    /**
+     * Timing of a single request. Not thread-safe; use one per request.
+     */
+    public final class Timing {
+        private final long start = System.nanoTime();
+        private final long[] stageNanos = new long[stageTags.length];
+        private long stageStart = start;
+        private int recordedStages;
+
+        /**
+         * Ends {@code stage}, which is taken to have started when the previous stage ended.
+         */
+        public void endStage(S stage) {
+            long now = System.nanoTime();
+            stageNanos[stage.ordinal()] += now - stageStart;
+            recordedStages |= 1 << stage.ordinal();
+            stageStart = now;
+        }
+
+        /**
+         * Records the stages ended so far and the total time under {@code outcome}.
+         */
+        public void finish(O outcome) {
+            int o = outcome.ordinal();
+            totalTimer(o).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            for (int s = 0; s < stageNanos.length; s++) {
+                if ((recordedStages & (1 << s)) != 0) {
+                    stageTimer(s, o).record(stageNanos[s], TimeUnit.NANOSECONDS);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.urlshortener.util;
+
+import com.urlshortener.model.Granularity;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Counts timestamps per local-time bucket of a {@link Granularity} in a time zone. The bounds
+ * of the most recent bucket are cached, so a run of timestamps from the same bucket costs two
+ * comparisons each; bucket starts are only resolved and formatted once per distinct bucket.
+ * Buckets follow the wall clock, so across a DST change a bucket can be shorter or longer
+ * than its nominal width. Not thread-safe.
+ */
+public final class TimeHistogram {
+
+    private final ZoneId zone;
+    private final Granularity granularity;
+    private final Map<LocalDateTime, Integer> indexByBucket = new HashMap<>();
+    private LocalDateTime[] buckets = new LocalDateTime[8];
+    private long[] counts = new long[8];
+    private int size;
+
+    private long currentStart = Long.MAX_VALUE;
+    private long currentEnd = Long.MIN_VALUE;
+    private int currentIndex;
+
+    public TimeHistogram(ZoneId zone, Granularity granularity) {
+        this.zone = zone;
+        this.granularity = granularity;
+    }
+
+    public void add(long epochMillis) {
+        add(epochMillis, 1);
+    }
+
+    public void add(long epochMillis, long count) {
+        if (epochMillis < currentStart || epochMillis >= currentEnd) {
+            enterBucket(epochMillis);
+        }
+        counts[currentIndex] += count;
+    }
+
+    /**
+     * Adds {@code count} to the bucket starting at local time {@code bucketStart}.
+     */
+    public void add(LocalDateTime bucketStart, long count) {
+        counts[indexOf(granularity.truncate(bucketStart))] += count;
+    }
+
+    /**
+     * Returns the counts keyed by {@link Granularity#key bucket key}, in chronological order.
+     */
+    public Map<String, Long> toMap() {
+        Map<String, Long> result = new TreeMap<>();
+        for (int i = 0; i < size; i++) {
+            result.put(granularity.key(buckets[i]), counts[i]);
+        }
+        return result;
+    }
+
+    private void enterBucket(long epochMillis) {
+        LocalDateTime bucket = granularity.truncate(LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), zone));
+        currentStart = Math.min(epochMillis, bucket.atZone(zone).toInstant().toEpochMilli());
+        currentEnd = granularity.next(bucket).atZone(zone).toInstant().toEpochMilli();
+        currentIndex = indexOf(bucket);
+    }
+
+    private int indexOf(LocalDateTime bucket) {
+        Integer index = indexByBucket.get(bucket);
+        if (index != null) {
+            return index;
+        }
+        if (size == buckets.length) {
+            buckets = Arrays.copyOf(buckets, size * 2);
+            counts = Arrays.copyOf(counts, size * 2);
+        }
+        buckets[size] = bucket;
+        indexByBucket.put(bucket, size);
+        return size++;
+    }
+}
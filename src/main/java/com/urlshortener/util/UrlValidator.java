@@ -2,17 +2,25 @@ package com.urlshortener.util;
 
 import org.springframework.stereotype.Component;
 
-import java.net.MalformedURLException;
-import java.net.URL;
+import java.net.URI;
+import java.net.URISyntaxException;
 
 @Component
 public class UrlValidator {
 
+    /**
+     * Whether {@code urlString} is an absolute {@code http} or {@code https} URL with a host, the
+     * same links the API accepts. Thread-safe.
+     */
     public boolean isValidUrl(String urlString) {
+        if (urlString == null || urlString.isBlank()) {
+            return false;
+        }
         try {
-            new URL(urlString);
-            return true;
-        } catch (MalformedURLException e) {
+            URI uri = new URI(urlString);
+            String scheme = uri.getScheme();
+            return ("http".equalsIgnoreCase(scheme) || "https".equalsIgnoreCase(scheme)) && uri.getHost() != null;
+        } catch (URISyntaxException e) {
             return false;
         }
     }
@@ -0,0 +1,71 @@
+package com.urlshortener.config;
+
+import com.urlshortener.entity.ClickBucket;
+import com.urlshortener.entity.ClickEvent;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MongoIndexInitializerTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private IndexOperations indexOperations;
+
+    private MongoMappingContext mappingContext;
+
+    @BeforeEach
+    void setUp() {
+        mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(MongoCustomConversions.create(adapter -> { }).getSimpleTypeHolder());
+        when(mongoTemplate.getConverter()).thenReturn(new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext));
+    }
+
+    @Test
+    void ensureIndexes_ClickBucket_OnlyCreatesShortCodeStart() {
+        mappingContext.getPersistentEntity(ClickBucket.class);
+        when(mongoTemplate.indexOps("click_buckets")).thenReturn(indexOperations);
+
+        new MongoIndexInitializer(mongoTemplate).ensureIndexes();
+
+        ArgumentCaptor<IndexDefinition> indexes = ArgumentCaptor.forClass(IndexDefinition.class);
+        verify(indexOperations, times(1)).createIndex(indexes.capture());
+        IndexDefinition index = indexes.getValue();
+        assertEquals(new Document("shortCode", 1).append("start", 1), index.getIndexKeys());
+        assertEquals("shortCode_start", index.getIndexOptions().getString("name"));
+    }
+
+    @Test
+    void ensureIndexes_ClickEvent_CreatesShortCodeClickedAt() {
+        mappingContext.getPersistentEntity(ClickEvent.class);
+        when(mongoTemplate.indexOps("click_events")).thenReturn(indexOperations);
+
+        new MongoIndexInitializer(mongoTemplate).ensureIndexes();
+
+        ArgumentCaptor<IndexDefinition> indexes = ArgumentCaptor.forClass(IndexDefinition.class);
+        verify(indexOperations, times(1)).createIndex(indexes.capture());
+        List<String> keys = List.copyOf(indexes.getValue().getIndexKeys().keySet());
+        assertEquals(List.of("shortCode", "clickedAt"), keys);
+    }
+}
@@ -0,0 +1,87 @@
+package com.urlshortener.controller;
+
+import com.urlshortener.config.AuthConfig;
+import com.urlshortener.dto.request.LoginRequest;
+import com.urlshortener.dto.response.AuthResponse;
+import com.urlshortener.exception.GlobalExceptionHandler;
+import com.urlshortener.exception.UnauthorizedException;
+import com.urlshortener.service.AuthService;
+import com.urlshortener.service.impl.LoginGuardServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class AuthControllerTest {
+
+    private static final String LOGIN = "{\"username\":\"alice\",\"password\":\"secret\"}";
+
+    @Mock
+    private AuthService authService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        AuthConfig config = new AuthConfig();
+        config.setIpAttempts(1);
+        LoginGuardServiceImpl loginGuardService = new LoginGuardServiceImpl(config, new SimpleMeterRegistry());
+        mockMvc = MockMvcBuilders.standaloneSetup(new AuthController(authService, loginGuardService))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void login_Success_ReturnsOkAfterAsyncDispatch() throws Exception {
+        when(authService.login(any(LoginRequest.class)))
+                .thenReturn(AuthResponse.builder().token("token").type("Bearer").username("alice").build());
+
+        MvcResult result = mockMvc.perform(post("/api/v1/auth/login").contentType(MediaType.APPLICATION_JSON).content(LOGIN))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").value("token"));
+    }
+
+    @Test
+    void login_BadCredentials_ReturnsUnauthorizedAfterAsyncDispatch() throws Exception {
+        when(authService.login(any(LoginRequest.class))).thenThrow(new UnauthorizedException("Invalid credentials"));
+
+        MvcResult result = mockMvc.perform(post("/api/v1/auth/login").contentType(MediaType.APPLICATION_JSON).content(LOGIN))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.message").value("Invalid credentials"));
+    }
+
+    @Test
+    void login_OverIpLimit_ReturnsTooManyRequests() throws Exception {
+        when(authService.login(any(LoginRequest.class)))
+                .thenReturn(AuthResponse.builder().token("token").type("Bearer").username("alice").build());
+        MvcResult first = mockMvc.perform(post("/api/v1/auth/login").contentType(MediaType.APPLICATION_JSON).content(LOGIN))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(first)).andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/v1/auth/login").contentType(MediaType.APPLICATION_JSON).content(LOGIN))
+                .andExpect(status().isTooManyRequests());
+    }
+}
@@ -0,0 +1,102 @@
+package com.urlshortener.service.impl;
+
+import com.urlshortener.config.AuthConfig;
+import com.urlshortener.exception.TooManyRequestsException;
+import com.urlshortener.exception.UnauthorizedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LoginGuardServiceImplTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private LoginGuardServiceImpl loginGuardService;
+
+    @AfterEach
+    void tearDown() {
+        loginGuardService.shutdown();
+    }
+
+    @Test
+    void submit_OverIpLimit_IsRejected() {
+        AuthConfig config = new AuthConfig();
+        config.setIpAttempts(2);
+        loginGuardService = new LoginGuardServiceImpl(config, meterRegistry);
+
+        assertEquals("ok", loginGuardService.submit("login", "10.0.0.1", "alice", () -> "ok").join());
+        assertEquals("ok", loginGuardService.submit("login", "10.0.0.1", "bob", () -> "ok").join());
+        assertThrows(TooManyRequestsException.class,
+                () -> loginGuardService.submit("login", "10.0.0.1", "carol", () -> "ok"));
+
+        // Other addresses are counted separately
+        assertEquals("ok", loginGuardService.submit("login", "10.0.0.2", "alice", () -> "ok").join());
+        assertEquals(1, meterRegistry.counter("auth.credentials.rejected", "reason", "ip").count());
+    }
+
+    @Test
+    void submit_UsernameFailures_LockOutOnlyAfterFailedLogins() {
+        AuthConfig config = new AuthConfig();
+        config.setIpAttempts(100);
+        config.setUsernameFailures(2);
+        loginGuardService = new LoginGuardServiceImpl(config, meterRegistry);
+
+        // Successful logins never count against the username
+        for (int i = 0; i < 5; i++) {
+            loginGuardService.submit("login", "10.0.0.1", "alice", () -> "ok").join();
+        }
+        for (int i = 0; i < 2; i++) {
+            CompletableFuture<String> failed = loginGuardService.submit("login", "10.0.0.1", "alice", () -> {
+                throw new UnauthorizedException("Invalid credentials");
+            });
+            CompletionException e = assertThrows(CompletionException.class, failed::join);
+            assertInstanceOf(UnauthorizedException.class, e.getCause());
+        }
+
+        assertThrows(TooManyRequestsException.class,
+                () -> loginGuardService.submit("login", "10.0.0.1", "alice", () -> "ok"));
+        assertEquals("ok", loginGuardService.submit("login", "10.0.0.1", "bob", () -> "ok").join());
+        assertEquals(1, meterRegistry.counter("auth.credentials.rejected", "reason", "username").count());
+    }
+
+    @Test
+    void submit_QueueFull_IsRejected() throws InterruptedException {
+        AuthConfig config = new AuthConfig();
+        config.setHashThreads(1);
+        config.setMaxQueued(1);
+        loginGuardService = new LoginGuardServiceImpl(config, meterRegistry);
+
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> first = loginGuardService.submit("login", "10.0.0.1", "alice", () -> {
+            running.countDown();
+            awaitQuietly(release);
+            return "first";
+        });
+        running.await();
+        CompletableFuture<String> queued = loginGuardService.submit("login", "10.0.0.2", "bob", () -> "queued");
+
+        assertThrows(TooManyRequestsException.class,
+                () -> loginGuardService.submit("login", "10.0.0.3", "carol", () -> "rejected"));
+        assertEquals(1, meterRegistry.counter("auth.credentials.rejected", "reason", "queue_full").count());
+
+        release.countDown();
+        assertEquals("first", first.join());
+        assertEquals("queued", queued.join());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
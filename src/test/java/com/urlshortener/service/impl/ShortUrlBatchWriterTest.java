@@ -0,0 +1,152 @@
+package com.urlshortener.service.impl;
+
+import com.urlshortener.entity.ShortUrl;
+import com.urlshortener.repository.ShortUrlRepository;
+import com.urlshortener.service.ShortCodeFilterService;
+import com.urlshortener.service.ShortCodeGeneratorService;
+import com.urlshortener.service.impl.ShortUrlBatchWriter.Outcome;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ShortUrlBatchWriterTest {
+
+    @Mock
+    private ShortUrlRepository shortUrlRepository;
+
+    @Mock
+    private ShortCodeGeneratorService shortCodeGeneratorService;
+
+    @Mock
+    private ShortCodeFilterService shortCodeFilterService;
+
+    private ShortUrlBatchWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(shortCodeFilterService.mightExist(anyString())).thenReturn(true);
+        lenient().when(shortCodeGeneratorService.generatesUniqueCodes()).thenReturn(true);
+        lenient().when(shortUrlRepository.findIdsByShortCode(anyCollection())).thenReturn(Map.of());
+        writer = new ShortUrlBatchWriter(shortUrlRepository, shortCodeGeneratorService, shortCodeFilterService);
+    }
+
+    @Test
+    void write_RepeatedAlias_InsertsFirstOnly() {
+        List<ShortUrl> urls = List.of(url("id1", "promo1"), url("id2", "promo1"));
+        when(shortUrlRepository.insertAllUnordered(anyList())).thenReturn(Set.of());
+
+        Outcome[] outcomes = writer.write(urls);
+
+        assertArrayEquals(new Outcome[]{Outcome.CREATED, Outcome.ALIAS_REPEATED}, outcomes);
+        assertEquals(List.of(urls.get(0)), insertedBatches(1).get(0));
+    }
+
+    @Test
+    void write_AliasAlreadyTaken_IsNotInserted() {
+        when(shortUrlRepository.findIdsByShortCode(anyCollection())).thenReturn(Map.of("promo1", "otherId"));
+
+        Outcome[] outcomes = writer.write(List.of(url("id1", "promo1")));
+
+        assertArrayEquals(new Outcome[]{Outcome.ALIAS_TAKEN}, outcomes);
+        verify(shortUrlRepository, never()).insertAllUnordered(anyList());
+    }
+
+    @Test
+    void write_AliasTakenConcurrently_IsNotRetried() {
+        when(shortUrlRepository.insertAllUnordered(anyList())).thenReturn(Set.of(0));
+        when(shortUrlRepository.findAllById(List.of("id1"))).thenReturn(List.of());
+
+        Outcome[] outcomes = writer.write(List.of(url("id1", "promo1")));
+
+        assertArrayEquals(new Outcome[]{Outcome.ALIAS_TAKEN}, outcomes);
+        verify(shortUrlRepository, times(1)).insertAllUnordered(anyList());
+    }
+
+    @Test
+    void write_AliasOwnedBySameId_IsAlreadyCreated() {
+        when(shortUrlRepository.findIdsByShortCode(anyCollection())).thenReturn(Map.of("promo1", "id1"));
+
+        Outcome[] outcomes = writer.write(List.of(url("id1", "promo1")));
+
+        assertArrayEquals(new Outcome[]{Outcome.ALREADY_CREATED}, outcomes);
+        verify(shortUrlRepository, never()).insertAllUnordered(anyList());
+    }
+
+    @Test
+    void write_IdAlreadyStored_IsAlreadyCreatedNotRetried() {
+        ShortUrl stored = url("id1", null);
+        when(shortCodeGeneratorService.generateShortCodes(1)).thenReturn(List.of("abc1234"));
+        when(shortUrlRepository.insertAllUnordered(anyList())).thenReturn(Set.of(0));
+        when(shortUrlRepository.findAllById(List.of("id1"))).thenReturn(List.of(stored));
+
+        Outcome[] outcomes = writer.write(List.of(url("id1", null)));
+
+        assertArrayEquals(new Outcome[]{Outcome.ALREADY_CREATED}, outcomes);
+        verify(shortUrlRepository, times(1)).insertAllUnordered(anyList());
+    }
+
+    @Test
+    void write_GeneratedCodeCollision_RetriesWithFreshCode() {
+        List<ShortUrl> urls = List.of(url("id1", null), url("id2", null));
+        when(shortCodeGeneratorService.generateShortCodes(2)).thenReturn(List.of("code001", "code002"));
+        when(shortCodeGeneratorService.generateShortCodes(1)).thenReturn(List.of("code003"));
+        when(shortUrlRepository.insertAllUnordered(anyList())).thenReturn(Set.of(1), Set.of());
+        when(shortUrlRepository.findAllById(List.of("id2"))).thenReturn(List.of());
+
+        Outcome[] outcomes = writer.write(urls);
+
+        assertArrayEquals(new Outcome[]{Outcome.CREATED, Outcome.CREATED}, outcomes);
+        assertEquals("code001", urls.get(0).getShortCode());
+        assertEquals("code003", urls.get(1).getShortCode());
+        List<List<ShortUrl>> batches = insertedBatches(2);
+        assertEquals(List.of(urls.get(1)), batches.get(1));
+        verify(shortCodeFilterService).add("code003");
+    }
+
+    @Test
+    void write_GeneratedCodeAlwaysColliding_GivesUp() {
+        when(shortCodeGeneratorService.generateShortCodes(1)).thenReturn(List.of("code001"));
+        when(shortUrlRepository.insertAllUnordered(anyList())).thenReturn(Set.of(0));
+        when(shortUrlRepository.findAllById(List.of("id1"))).thenReturn(List.of());
+
+        Outcome[] outcomes = writer.write(List.of(url("id1", null)));
+
+        assertArrayEquals(new Outcome[]{Outcome.NO_CODE_AVAILABLE}, outcomes);
+        verify(shortUrlRepository, times(UrlServiceImpl.MAX_SHORT_CODE_ATTEMPTS)).insertAllUnordered(anyList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<ShortUrl>> insertedBatches(int calls) {
+        ArgumentCaptor<List<ShortUrl>> batches = ArgumentCaptor.forClass(List.class);
+        verify(shortUrlRepository, times(calls)).insertAllUnordered(batches.capture());
+        return batches.getAllValues();
+    }
+
+    private static ShortUrl url(String id, String shortCode) {
+        return ShortUrl.builder()
+                .id(id)
+                .shortCode(shortCode)
+                .originalUrl("https://example.com/" + id)
+                .userId("alice")
+                .build();
+    }
+}
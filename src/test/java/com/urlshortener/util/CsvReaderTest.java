@@ -0,0 +1,45 @@
+package com.urlshortener.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CsvReaderTest {
+
+    @Test
+    void readRow_QuotedFields_UnescapesQuotesCommasAndLineBreaks() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader(
+                "originalUrl,customAlias\r\n\"https://example.com/?a=1,2\",\"say \"\"hi\"\"\"\n\"two\nlines\",\n"));
+
+        assertEquals(List.of("originalUrl", "customAlias"), csv.readRow());
+        assertEquals(List.of("https://example.com/?a=1,2", "say \"hi\""), csv.readRow());
+        assertEquals(List.of("two\nlines", ""), csv.readRow());
+        assertNull(csv.readRow());
+    }
+
+    @Test
+    void readRow_WhatCsvWriterWrote_ReadsTheSameFields() throws IOException {
+        StringWriter out = new StringWriter();
+        CsvWriter writer = new CsvWriter(out);
+        writer.writeRow("a,b", "", "\"quoted\"", "last");
+        writer.writeRow("no newline at end");
+
+        CsvReader csv = new CsvReader(new StringReader(out.toString().stripTrailing()));
+        assertEquals(List.of("a,b", "", "\"quoted\"", "last"), csv.readRow());
+        assertEquals(List.of("no newline at end"), csv.readRow());
+        assertNull(csv.readRow());
+    }
+
+    @Test
+    void readRow_UnterminatedQuote_Throws() {
+        CsvReader csv = new CsvReader(new StringReader("\"open,field\n"));
+        assertThrows(IOException.class, csv::readRow);
+    }
+}
@@ -0,0 +1,45 @@
+package com.urlshortener.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CsvWriterTest {
+
+    @Test
+    void writeRow_PlainFields_WritesThemAsIs() throws IOException {
+        StringWriter out = new StringWriter();
+        CsvWriter csv = new CsvWriter(out);
+        csv.writeRow("clickedAt", "country", "referrer");
+        csv.writeRow("2025-11-17T09:00:00+01:00", null, "direct");
+
+        assertEquals("clickedAt,country,referrer\r\n2025-11-17T09:00:00+01:00,,direct\r\n", out.toString());
+    }
+
+    @Test
+    void writeRow_SpecialCharacters_QuotesAndDoublesQuotes() throws IOException {
+        StringWriter out = new StringWriter();
+        new CsvWriter(out).writeRow("Mozilla/5.0 (X11; Linux x86_64)", "a,b", "say \"hi\"", "two\nlines");
+
+        assertEquals("Mozilla/5.0 (X11; Linux x86_64),\"a,b\",\"say \"\"hi\"\"\",\"two\nlines\"\r\n", out.toString());
+    }
+
+    @Test
+    void writeRow_EscapeFormulas_PrefixesFormulaLikeFields() throws IOException {
+        StringWriter out = new StringWriter();
+        new CsvWriter(out, true).writeRow("=HYPERLINK(\"http://evil\")", "+1", "-2", "@SUM(A1)", "\tx", "\rx", "safe", "a=b");
+
+        assertEquals("\"'=HYPERLINK(\"\"http://evil\"\")\",'+1,'-2,'@SUM(A1),'\tx,\"'\rx\",safe,a=b\r\n", out.toString());
+    }
+
+    @Test
+    void writeRow_WithoutEscapeFormulas_WritesFieldsAsIs() throws IOException {
+        StringWriter out = new StringWriter();
+        new CsvWriter(out).writeRow("=1+1", "-2");
+
+        assertEquals("=1+1,-2\r\n", out.toString());
+    }
+}
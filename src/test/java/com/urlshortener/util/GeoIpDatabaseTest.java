@@ -0,0 +1,85 @@
+package com.urlshortener.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class GeoIpDatabaseTest {
+
+    private static final GeoIpDatabase.Columns COLUMNS = new GeoIpDatabase.Columns(0, 1, 2, 3, 4);
+
+    @TempDir
+    Path tempDir;
+
+    private GeoIpDatabase database;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path csv = tempDir.resolve("geo.csv");
+        Files.writeString(csv, String.join("\n",
+                "ip_start,ip_end,country,region,city",
+                "8.8.8.0,8.8.8.255,United States,California,Mountain View",
+                "1.0.0.0,1.0.0.255,Australia,Queensland,Brisbane",
+                "200.0.0.0,255.255.255.255,\"Brazil\",\"Sao Paulo\",\"Sao Paulo\"",
+                "# comment line",
+                "2001:4860::,2001:4860:ffff:ffff:ffff:ffff:ffff:ffff,United States,California,Mountain View",
+                "2a00:1450::,2a00:1450:ffff:ffff:ffff:ffff:ffff:ffff,Ireland,Leinster,-"));
+        database = GeoIpDatabase.load(csv, COLUMNS);
+    }
+
+    @Test
+    void lookup_Ipv4InRange_ReturnsLocation() {
+        Map<String, String> result = database.lookup("8.8.8.8");
+        assertEquals("United States", result.get("country"));
+        assertEquals("California", result.get("region"));
+        assertEquals("Mountain View", result.get("city"));
+    }
+
+    @Test
+    void lookup_Ipv4RangeBoundaries_AreInclusive() {
+        assertEquals("Australia", database.lookup("1.0.0.0").get("country"));
+        assertEquals("Australia", database.lookup("1.0.0.255").get("country"));
+        assertNull(database.lookup("1.0.1.0"));
+        assertEquals("Brazil", database.lookup("255.255.255.255").get("country"));
+    }
+
+    @Test
+    void lookup_Ipv6InRange_ReturnsLocation() {
+        assertEquals("Mountain View", database.lookup("2001:4860:4860::8888").get("city"));
+        assertEquals("Unknown", database.lookup("2a00:1450:4001:81b::200e").get("city"));
+        assertNull(database.lookup("2a01::1"));
+    }
+
+    @Test
+    void lookup_SameLocation_ReturnsSharedInstance() {
+        assertSame(database.lookup("8.8.8.8"), database.lookup("2001:4860::1"));
+    }
+
+    @Test
+    void lookup_InvalidAddress_ReturnsNull() {
+        assertNull(database.lookup("not-an-ip"));
+        assertNull(database.lookup("8.8.8"));
+        assertNull(database.lookup("8.8.8.256"));
+        assertNull(database.lookup(null));
+    }
+
+    @Test
+    void parseIpv6_HandlesCompressionAndEmbeddedIpv4() {
+        assertArrayEquals(new long[]{0L, 1L}, GeoIpDatabase.parseIpv6("::1"));
+        assertArrayEquals(new long[]{0L, 0xFFFF08080808L}, GeoIpDatabase.parseIpv6("::ffff:8.8.8.8"));
+        assertArrayEquals(new long[]{0x20010DB800000000L, 0L}, GeoIpDatabase.parseIpv6("2001:db8::"));
+        assertArrayEquals(new long[]{0L, 1L}, GeoIpDatabase.parseIpv6("0:0:0:0:0:0:0:1"));
+        assertNull(GeoIpDatabase.parseIpv6("1::2::3"));
+        assertNull(GeoIpDatabase.parseIpv6("1:2:3:4:5:6:7:8:9"));
+    }
+}
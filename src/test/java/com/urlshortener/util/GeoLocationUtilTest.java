@@ -1,5 +1,7 @@
 package com.urlshortener.util;
 
+import com.urlshortener.config.GeoConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,6 +15,9 @@ import java.util.Map;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -21,11 +26,18 @@ class GeoLocationUtilTest {
     @Mock
     private RestTemplate restTemplate;
 
+    @Mock
+    private GeoIpDatabaseProvider geoIpDatabaseProvider;
+
+    private GeoLookupCache geoLookupCache;
+
     private GeoLocationUtil geoLocationUtil;
 
     @BeforeEach
     void setUp() {
-        geoLocationUtil = new GeoLocationUtil(restTemplate);
+        GeoConfig geoConfig = new GeoConfig();
+        geoLookupCache = new GeoLookupCache(geoConfig, new SimpleMeterRegistry());
+        geoLocationUtil = new GeoLocationUtil(restTemplate, geoIpDatabaseProvider, geoLookupCache, geoConfig);
     }
 
     @Test
@@ -61,4 +73,49 @@ class GeoLocationUtilTest {
         assertEquals("Unknown", result.get("region"));
         assertEquals("Unknown", result.get("city"));
     }
+
+    @Test
+    void getGeoLocation_RepeatedIp_CallsApiOnce() {
+        Map<String, Object> apiResponse = new HashMap<>();
+        apiResponse.put("status", "success");
+        apiResponse.put("country", "United States");
+        apiResponse.put("regionName", "Virginia");
+        apiResponse.put("city", "Ashburn");
+
+        when(restTemplate.getForObject(anyString(), eq(Map.class))).thenReturn(apiResponse);
+
+        geoLocationUtil.getGeoLocation("8.8.8.8");
+        Map<String, String> result = geoLocationUtil.getGeoLocation("8.8.8.8");
+        assertEquals("Ashburn", result.get("city"));
+        verify(restTemplate, times(1)).getForObject(anyString(), eq(Map.class));
+    }
+
+    @Test
+    void getGeoLocation_ApiErrorRepeated_IsNegativelyCached() {
+        when(restTemplate.getForObject(anyString(), eq(Map.class))).thenThrow(new RuntimeException("API Error"));
+
+        geoLocationUtil.getGeoLocation("8.8.8.8");
+        Map<String, String> result = geoLocationUtil.getGeoLocation("8.8.8.8");
+        assertEquals("Unknown", result.get("country"));
+        verify(restTemplate, times(1)).getForObject(anyString(), eq(Map.class));
+    }
+
+    @Test
+    void getGeoLocation_Saturated_IsNotNegativelyCached() {
+        GeoConfig saturatedConfig = new GeoConfig();
+        saturatedConfig.setRemoteMaxConcurrency(0);
+        GeoLocationUtil saturated = new GeoLocationUtil(restTemplate, geoIpDatabaseProvider, geoLookupCache, saturatedConfig);
+
+        assertEquals("Unknown", saturated.getGeoLocation("8.8.8.8").get("country"));
+        verify(restTemplate, never()).getForObject(anyString(), eq(Map.class));
+
+        Map<String, Object> apiResponse = new HashMap<>();
+        apiResponse.put("status", "success");
+        apiResponse.put("country", "United States");
+        apiResponse.put("regionName", "Virginia");
+        apiResponse.put("city", "Ashburn");
+        when(restTemplate.getForObject(anyString(), eq(Map.class))).thenReturn(apiResponse);
+
+        assertEquals("United States", geoLocationUtil.getGeoLocation("8.8.8.8").get("country"));
+    }
 }
@@ -0,0 +1,71 @@
+package com.urlshortener.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HyperLogLogTest {
+
+    @Test
+    void estimate_StaysWithinErrorBoundAcrossCardinalities() {
+        for (int cardinality : new int[]{10, 1_000, 10_000, 250_000}) {
+            HyperLogLog sketch = new HyperLogLog();
+            for (int i = 0; i < cardinality; i++) {
+                sketch.add(visitor(i));
+                // Repeat visits do not count
+                sketch.add(visitor(i));
+            }
+
+            double error = Math.abs(sketch.estimate() - cardinality) / (double) cardinality;
+            assertTrue(error < 4 * HyperLogLog.STANDARD_ERROR,
+                    "cardinality " + cardinality + " estimated as " + sketch.estimate());
+        }
+    }
+
+    @Test
+    void merge_EstimatesUnion() {
+        HyperLogLog monday = new HyperLogLog();
+        HyperLogLog tuesday = new HyperLogLog();
+        HyperLogLog both = new HyperLogLog();
+        for (int i = 0; i < 30_000; i++) {
+            monday.add(visitor(i));
+            both.add(visitor(i));
+        }
+        for (int i = 20_000; i < 50_000; i++) {
+            tuesday.add(visitor(i));
+            both.add(visitor(i));
+        }
+
+        assertTrue(monday.merge(tuesday));
+        assertEquals(both, monday);
+        assertFalse(monday.merge(tuesday));
+    }
+
+    @Test
+    void toBytes_RoundTripsSparseAndDense() {
+        HyperLogLog small = new HyperLogLog();
+        HyperLogLog large = new HyperLogLog();
+        for (int i = 0; i < 100_000; i++) {
+            if (i < 50) {
+                small.add(visitor(i));
+            }
+            large.add(visitor(i));
+        }
+
+        byte[] sparse = small.toBytes();
+        assertTrue(sparse.length <= 1 + 50 * 3);
+        assertEquals(small, HyperLogLog.fromBytes(sparse));
+
+        byte[] dense = large.toBytes();
+        assertEquals(1 + HyperLogLog.REGISTERS * 6 / 8, dense.length);
+        assertEquals(large, HyperLogLog.fromBytes(dense));
+        assertArrayEquals(dense, HyperLogLog.fromBytes(dense).toBytes());
+    }
+
+    private static String visitor(int i) {
+        return "203.0." + (i >>> 8 & 0xFF) + "." + (i & 0xFF) + "|Mozilla/5.0 #" + (i >>> 16);
+    }
+}
@@ -0,0 +1,46 @@
+package com.urlshortener.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScalableBloomFilterTest {
+
+    @Test
+    void mightContain_AddedValues_AlwaysTrue() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, 0.01);
+        for (int i = 0; i < 20_000; i++) {
+            filter.add("code" + i);
+        }
+        for (int i = 0; i < 20_000; i++) {
+            assertTrue(filter.mightContain("code" + i), "False negative for code" + i);
+        }
+        assertEquals(20_000, filter.insertions());
+    }
+
+    @Test
+    void mightContain_AbsentValues_StaysNearTargetRateAfterGrowing() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, 0.01);
+        for (int i = 0; i < 20_000; i++) {
+            filter.add("code" + i);
+        }
+
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("absent" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives / (double) probes < 0.02, "False positive rate too high: " + falsePositives);
+        assertTrue(filter.expectedFalsePositiveRate() < 0.02);
+    }
+
+    @Test
+    void mightContain_EmptyFilter_False() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(100, 0.001);
+        assertFalse(filter.mightContain("anything"));
+    }
+}
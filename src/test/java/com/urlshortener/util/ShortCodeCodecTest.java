@@ -0,0 +1,50 @@
+package com.urlshortener.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShortCodeCodecTest {
+
+    @Test
+    void encode_WithoutScramble_IsPlainBase62() {
+        ShortCodeCodec codec = new ShortCodeCodec(7, false, 0);
+        assertEquals("aaaaaaa", codec.encode(0));
+        assertEquals("aaaaaab", codec.encode(1));
+        assertEquals("aaaaaba", codec.encode(62));
+        assertEquals("9999999", codec.encode(codec.capacity() - 1));
+    }
+
+    @Test
+    void encode_WithScramble_IsBijectiveOverCodeSpace() {
+        ShortCodeCodec codec = new ShortCodeCodec(2, true, 42);
+        Set<String> codes = new HashSet<>();
+        for (long id = 0; id < codec.capacity(); id++) {
+            String code = codec.encode(id);
+            assertEquals(2, code.length());
+            assertTrue(codes.add(code), "Duplicate code " + code);
+        }
+        assertEquals(62 * 62, codes.size());
+    }
+
+    @Test
+    void encode_WithScramble_HidesSequentialIds() {
+        ShortCodeCodec codec = new ShortCodeCodec(7, true, 42);
+        assertNotEquals(codec.encode(1).substring(0, 6), codec.encode(2).substring(0, 6));
+        assertEquals(codec.encode(12345), new ShortCodeCodec(7, true, 42).encode(12345));
+        assertNotEquals(codec.encode(12345), new ShortCodeCodec(7, true, 43).encode(12345));
+    }
+
+    @Test
+    void encode_OutOfRange_Throws() {
+        ShortCodeCodec codec = new ShortCodeCodec(2, true, 42);
+        assertThrows(IllegalArgumentException.class, () -> codec.encode(codec.capacity()));
+        assertThrows(IllegalArgumentException.class, () -> codec.encode(-1));
+    }
+}
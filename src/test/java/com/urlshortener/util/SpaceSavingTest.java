@@ -0,0 +1,50 @@
+package com.urlshortener.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpaceSavingTest {
+
+    @Test
+    void top_FewerValuesThanCapacity_CountsExactly() {
+        SpaceSaving summary = new SpaceSaving(8);
+        for (String value : List.of("a", "b", "a", "c", "a", "b")) {
+            summary.add(value);
+        }
+
+        List<SpaceSaving.Entry> top = summary.top(2);
+        assertEquals(List.of(new SpaceSaving.Entry("a", 3, 0, true), new SpaceSaving.Entry("b", 2, 0, true)), top);
+        assertEquals(6, summary.total());
+    }
+
+    @Test
+    void top_SkewedStream_FindsHeavyHittersWithinErrorBound() {
+        SpaceSaving summary = new SpaceSaving(32);
+        Map<String, Long> exact = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            // Five heavy hosts over a long tail of one-off referrers
+            String value = random.nextInt(4) == 0 ? "host" + random.nextInt(5) : "tail" + random.nextInt(1_000_000);
+            summary.add(value);
+            exact.merge(value, 1L, Long::sum);
+        }
+
+        List<SpaceSaving.Entry> top = summary.top(5);
+        long maxError = summary.total() / 32;
+        for (int i = 0; i < 5; i++) {
+            SpaceSaving.Entry entry = top.get(i);
+            long trueCount = exact.get(entry.value());
+            assertTrue(entry.value().startsWith("host"), "unexpected heavy hitter " + entry.value());
+            assertTrue(entry.count() >= trueCount && entry.count() - entry.error() <= trueCount);
+            assertTrue(entry.error() <= maxError);
+            assertTrue(entry.guaranteed());
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.urlshortener.util;
+
+import com.urlshortener.model.Granularity;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TimeHistogramTest {
+
+    private static final ZoneId NEW_YORK = ZoneId.of("America/New_York");
+
+    @Test
+    void add_CountsPerLocalDay() {
+        TimeHistogram histogram = new TimeHistogram(NEW_YORK, Granularity.DAY);
+        histogram.add(millis("2024-05-01T00:00:00"));
+        histogram.add(millis("2024-05-01T23:59:59.999"));
+        histogram.add(millis("2024-05-02T00:00:00"));
+        histogram.add(millis("2024-05-01T12:00:00"));
+
+        assertEquals(Map.of("2024-05-01", 3L, "2024-05-02", 1L), histogram.toMap());
+    }
+
+    @Test
+    void add_DaysAcrossDstChange_UseActualDayLength() {
+        TimeHistogram histogram = new TimeHistogram(NEW_YORK, Granularity.DAY);
+        // 2024-03-10 is 23 hours long in New York
+        histogram.add(millis("2024-03-10T00:30:00"));
+        histogram.add(millis("2024-03-10T23:30:00"));
+        histogram.add(millis("2024-03-11T00:30:00"));
+        // 2024-11-03 is 25 hours long
+        histogram.add(millis("2024-11-03T00:30:00"));
+        histogram.add(millis("2024-11-03T23:30:00"));
+        histogram.add(millis("2024-11-04T00:10:00"));
+
+        assertEquals(Map.of("2024-03-10", 2L, "2024-03-11", 1L, "2024-11-03", 2L, "2024-11-04", 1L),
+                histogram.toMap());
+    }
+
+    @Test
+    void toMap_UnorderedInput_ReturnsChronologicalKeys() {
+        TimeHistogram histogram = new TimeHistogram(NEW_YORK, Granularity.DAY);
+        for (String time : List.of("2024-05-03T10:00:00", "2024-04-30T10:00:00", "2024-05-03T11:00:00",
+                "2023-12-31T10:00:00", "2024-04-30T09:00:00")) {
+            histogram.add(millis(time));
+        }
+
+        assertEquals(List.of("2023-12-31", "2024-04-30", "2024-05-03"), List.copyOf(histogram.toMap().keySet()));
+        assertEquals(2L, histogram.toMap().get("2024-05-03"));
+    }
+
+    @Test
+    void add_HourlyAcrossDstFallBack_MergesRepeatedHour() {
+        TimeHistogram histogram = new TimeHistogram(NEW_YORK, Granularity.HOUR);
+        long firstOneAm = millis("2024-11-03T01:15:00");
+        histogram.add(millis("2024-11-03T00:59:00"));
+        histogram.add(firstOneAm);
+        // The same wall-clock hour again, after clocks went back
+        histogram.add(firstOneAm + 3_600_000L);
+        histogram.add(millis("2024-11-03T02:00:00"));
+
+        assertEquals(Map.of("2024-11-03T00:00", 1L, "2024-11-03T01:00", 2L, "2024-11-03T02:00", 1L),
+                histogram.toMap());
+    }
+
+    @Test
+    void add_Weekly_KeysByMonday() {
+        TimeHistogram histogram = new TimeHistogram(NEW_YORK, Granularity.WEEK);
+        histogram.add(millis("2024-04-29T00:00:00"));
+        histogram.add(millis("2024-05-05T23:59:00"));
+        histogram.add(millis("2024-05-06T00:00:00"));
+        histogram.add(LocalDateTime.parse("2024-05-08T00:00:00"), 5);
+
+        assertEquals(Map.of("2024-04-29", 2L, "2024-05-06", 6L), histogram.toMap());
+    }
+
+    @Test
+    void add_Minutely_KeysByMinute() {
+        TimeHistogram histogram = new TimeHistogram(NEW_YORK, Granularity.MINUTE);
+        histogram.add(millis("2024-05-01T13:05:00"));
+        histogram.add(millis("2024-05-01T13:05:59.999"));
+        histogram.add(millis("2024-05-01T13:06:00"));
+
+        assertEquals(Map.of("2024-05-01T13:05", 2L, "2024-05-01T13:06", 1L), histogram.toMap());
+    }
+
+    private static long millis(String localTime) {
+        return LocalDateTime.parse(localTime).atZone(NEW_YORK).toInstant().toEpochMilli();
+    }
+}